@@ -0,0 +1,72 @@
+package com.academia.bancos.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dados reais (netflix_userbase.json / relationships.json) e utilitários para montar
+ * os beans fora do Spring nos benchmarks.
+ */
+public final class Fixtures {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private Fixtures() {}
+
+    public static List<Map<String, Object>> users() {
+        return read("netflix_userbase.json", new TypeReference<>() {});
+    }
+
+    public static List<Map<String, String>> relationships() {
+        return read("relationships.json", new TypeReference<>() {});
+    }
+
+    private static <T> T read(String resource, TypeReference<T> type) {
+        try (InputStream in = new ClassPathResource(resource).getInputStream()) {
+            return MAPPER.readValue(in, type);
+        } catch (IOException e) {
+            throw new IllegalStateException("Fixture " + resource + " não encontrada", e);
+        }
+    }
+
+    // Injeta um campo @Autowired/@Value privado (os beans usam injeção por campo)
+    public static void inject(Object target, String field, Object value) {
+        Class<?> type = target.getClass();
+        while (type != null) {
+            try {
+                Field f = type.getDeclaredField(field);
+                f.setAccessible(true);
+                f.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                type = type.getSuperclass();
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        throw new IllegalArgumentException("Campo " + field + " não existe em " + target.getClass());
+    }
+
+    // Roda os métodos @PostConstruct, como o Spring faria depois das injeções
+    public static <T> T init(T target) {
+        for (Method m : target.getClass().getDeclaredMethods()) {
+            if (!m.isAnnotationPresent(PostConstruct.class)) continue;
+            try {
+                m.setAccessible(true);
+                m.invoke(target);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return target;
+    }
+}
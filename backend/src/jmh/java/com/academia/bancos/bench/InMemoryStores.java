@@ -0,0 +1,105 @@
+package com.academia.bancos.bench;
+
+import com.academia.bancos.model.document.UserProfileDoc;
+import com.academia.bancos.model.entity.UserEntity;
+import com.academia.bancos.repository.UserGraphQueries;
+import com.academia.bancos.repository.UserRepositoryMongo;
+import com.academia.bancos.repository.UserRepositoryPG;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Repositórios, UserGraphQueries e StringRedisTemplate em memória (via Proxy), só com os métodos que o
+ * UserService usa nos caminhos de leitura medidos.
+ */
+public final class InMemoryStores {
+
+    private InMemoryStores() {}
+
+    public static UserRepositoryPG postgres(Map<String, UserEntity> rows) {
+        return proxy(UserRepositoryPG.class, (p, m, a) -> switch (m.getName()) {
+            case "findById" -> Optional.ofNullable(rows.get((String) a[0]));
+            case "findAllById" -> {
+                List<UserEntity> found = new ArrayList<>();
+                for (Object id : (Iterable<?>) a[0]) {
+                    UserEntity e = rows.get((String) id);
+                    if (e != null) found.add(e);
+                }
+                yield found;
+            }
+            case "findAll" -> new ArrayList<>(rows.values());
+            default -> objectMethod(p, m.getName(), a);
+        });
+    }
+
+    public static UserRepositoryMongo mongo(Map<String, UserProfileDoc> docs) {
+        ConcurrentSkipListMap<String, UserProfileDoc> sorted = new ConcurrentSkipListMap<>(docs);
+        return proxy(UserRepositoryMongo.class, (p, m, a) -> switch (m.getName()) {
+            case "findById" -> Optional.ofNullable(sorted.get((String) a[0]));
+            case "findAll" -> new ArrayList<>(sorted.values());
+            case "findByUserIdGreaterThan" -> sorted.tailMap((String) a[0], false).values().stream()
+                    .limit(((Pageable) a[1]).getPageSize())
+                    .toList();
+            default -> objectMethod(p, m.getName(), a);
+        });
+    }
+
+    public static StringRedisTemplate redis(Map<String, String> data) {
+        Map<String, String> store = new ConcurrentHashMap<>(data);
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, String> ops = proxy(ValueOperations.class, (p, m, a) -> switch (m.getName()) {
+            case "get" -> store.get((String) a[0]);
+            case "multiGet" -> {
+                List<String> values = new ArrayList<>();
+                for (Object key : (Collection<?>) a[0]) values.add(store.get((String) key));
+                yield values;
+            }
+            case "set" -> {
+                store.put((String) a[0], (String) a[1]);
+                yield null;
+            }
+            case "setIfAbsent" -> store.putIfAbsent((String) a[0], (String) a[1]) == null;
+            default -> objectMethod(p, m.getName(), a);
+        });
+        return new StringRedisTemplate() {
+            @Override
+            public ValueOperations<String, String> opsForValue() {
+                return ops;
+            }
+        };
+    }
+
+    // Todo nó com o mesmo grau (só degree/degrees; o resto do grafo não entra nas medições)
+    public static UserGraphQueries graph(UserGraphQueries.Degree degree) {
+        return proxy(UserGraphQueries.class, (p, m, a) -> switch (m.getName()) {
+            case "degree" -> Optional.of(degree);
+            case "degrees" -> {
+                Map<String, UserGraphQueries.Degree> degrees = new HashMap<>();
+                for (Object id : (Collection<?>) a[0]) degrees.put((String) id, degree);
+                yield degrees;
+            }
+            default -> objectMethod(p, m.getName(), a);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object objectMethod(Object proxy, String name, Object[] args) {
+        return switch (name) {
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "InMemory(" + proxy.getClass().getInterfaces()[0].getSimpleName() + ")";
+            default -> throw new UnsupportedOperationException(name);
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.academia.bancos.controller;
+
+import com.academia.bancos.bench.Fixtures;
+import com.academia.bancos.repository.UserGraphQueries;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização do payload nodes/links do /api/network: o formato antigo (List<Map<String,Object>>
+ * via ObjectMapper) contra a escrita direta no JsonGenerator usada hoje pelo NetworkController,
+ * em JSON e em CBOR (Accept: application/cbor). Bytes por resposta: tamanho do array retornado.
+ * O grafo é o ego-network de 2 saltos do usuário mais conectado do relationships.json.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NetworkSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CBORFactory cborFactory = new CBORFactory();
+
+    private String root;
+    private List<UserGraphQueries.Edge> edges;
+    private Map<String, Integer> hops;
+
+    @Setup
+    public void setup() {
+        Map<String, List<String>> out = new HashMap<>();
+        for (Map<String, String> rel : Fixtures.relationships()) {
+            out.computeIfAbsent(rel.get("followerId"), k -> new ArrayList<>()).add(rel.get("followedId"));
+        }
+        root = out.entrySet().stream().max(Comparator.comparingInt(e -> e.getValue().size())).orElseThrow().getKey();
+
+        edges = new ArrayList<>();
+        for (String friend : out.getOrDefault(root, List.of())) {
+            edges.add(new UserGraphQueries.Edge(root, friend));
+            for (String fof : out.getOrDefault(friend, List.of())) {
+                edges.add(new UserGraphQueries.Edge(friend, fof));
+            }
+        }
+        hops = NetworkController.hopsFrom(root, edges);
+    }
+
+    // Como era: um Map por nó e por aresta, depois ObjectMapper.writeValueAsBytes
+    @Benchmark
+    public byte[] mapsWithObjectMapper() throws IOException {
+        List<Map<String, Object>> nodes = new ArrayList<>();
+        List<Map<String, Object>> links = new ArrayList<>();
+        for (Map.Entry<String, Integer> node : hops.entrySet()) {
+            nodes.add(Map.of("id", node.getKey(), "group", node.getValue() == 0 ? "me" : "friend"));
+        }
+        for (UserGraphQueries.Edge edge : edges) {
+            links.add(Map.of("source", edge.source(), "target", edge.target()));
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("nodes", nodes);
+        response.put("links", links);
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    // Como é hoje: NetworkController.writeGraph direto no gerador
+    @Benchmark
+    public byte[] streamingGenerator() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            NetworkController.writeGraph(json, hops, edges);
+        }
+        return out.toByteArray();
+    }
+
+    // Mesmo writeGraph no gerador CBOR
+    @Benchmark
+    public byte[] streamingCbor() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        try (JsonGenerator cbor = cborFactory.createGenerator(out)) {
+            NetworkController.writeGraph(cbor, hops, edges);
+        }
+        return out.toByteArray();
+    }
+}
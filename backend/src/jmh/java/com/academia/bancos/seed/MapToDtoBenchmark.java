@@ -0,0 +1,36 @@
+package com.academia.bancos.seed;
+
+import com.academia.bancos.bench.Fixtures;
+import com.academia.bancos.model.dto.UserDTO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Conversão Map (JSON do netflix_userbase) -> UserDTO feita pelo BulkUserLoader para cada registro
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapToDtoBenchmark {
+
+    private List<Map<String, Object>> users;
+
+    @Setup
+    public void setup() {
+        users = Fixtures.users();
+    }
+
+    // Uma operação = o arquivo inteiro (2.500 usuários)
+    @Benchmark
+    public void mapAllUsers(Blackhole bh) {
+        for (Map<String, Object> map : users) {
+            UserDTO dto = BulkUserLoader.mapToDto(map);
+            bh.consume(dto);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.academia.bancos.service;
+
+import com.academia.bancos.bench.Fixtures;
+import com.academia.bancos.bench.InMemoryStores;
+import com.academia.bancos.metrics.StoreMetrics;
+import com.academia.bancos.model.document.UserProfileDoc;
+import com.academia.bancos.model.dto.UserDTO;
+import com.academia.bancos.model.entity.UserEntity;
+import com.academia.bancos.repository.UserGraphQueries;
+import com.academia.bancos.resilience.StoreGuard;
+import com.academia.bancos.seed.BulkUserLoader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Montagem de UserDTO no UserService com os bancos em memória: mede só o custo de CPU/alocação
+ * do join (getAllUsers / página keyset) e do fan-out da leitura agregada (sem near-cache).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserAssemblyBenchmark {
+
+    @Param({"500"})
+    public int batchSize;
+
+    private UserService service;
+    private ExecutorService executor;
+    private List<String> ids;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Map<String, UserEntity> rows = new HashMap<>();
+        Map<String, UserProfileDoc> docs = new HashMap<>();
+        Map<String, String> redis = new HashMap<>();
+        for (Map<String, Object> map : Fixtures.users()) {
+            UserDTO dto = BulkUserLoader.mapToDto(map);
+            UserEntity e = new UserEntity();
+            e.setUserId(dto.getUserId());
+            e.setEmail(dto.getEmail());
+            e.setPasswordHash(dto.getPassword());
+            rows.put(e.getUserId(), e);
+
+            UserProfileDoc d = new UserProfileDoc();
+            d.setUserId(dto.getUserId());
+            d.setAge(dto.getAge());
+            d.setCountry(dto.getCountry());
+            d.setGenres(dto.getGenres());
+            docs.put(d.getUserId(), d);
+
+            redis.put("login_count:" + dto.getUserId(), String.valueOf(dto.getLoginCount() != null ? dto.getLoginCount() : 0));
+        }
+        ids = new ArrayList<>(docs.keySet());
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StoreMetrics metrics = new StoreMetrics();
+        Fixtures.inject(metrics, "registry", registry);
+
+        // Sem cache: toda chamada de getUserAggregated vai ao loader
+        UserNearCache noCache = new UserNearCache() {
+            @Override
+            public UserDTO get(String userId, Function<String, UserDTO> loader) {
+                return loader.apply(userId);
+            }
+        };
+        UserGraphQueries graph = InMemoryStores.graph(new UserGraphQueries.Degree(5, 5));
+        executor = Executors.newFixedThreadPool(8);
+
+        // Prazos, bulkheads e breakers com os valores padrão (nada de application.properties aqui)
+        StoreGuard guard = new StoreGuard();
+        Fixtures.inject(guard, "env", new StandardEnvironment());
+        Fixtures.inject(guard, "registry", registry);
+        Fixtures.inject(guard, "storeExecutor", executor);
+        Fixtures.init(guard);
+
+        service = new UserService();
+        Fixtures.inject(service, "postgresRepo", InMemoryStores.postgres(rows));
+        Fixtures.inject(service, "mongoRepo", InMemoryStores.mongo(docs));
+        Fixtures.inject(service, "redisTemplate", InMemoryStores.redis(redis));
+        Fixtures.inject(service, "graphQueries", graph);
+        Fixtures.inject(service, "nearCache", noCache);
+        Fixtures.inject(service, "loginCounter", new LoginCounterBuffer());
+        Fixtures.inject(service, "keyspace", new RedisKeyspace());
+        Fixtures.inject(service, "storeMetrics", metrics);
+        Fixtures.inject(service, "storeGuard", guard);
+        Fixtures.inject(service, "batchSize", batchSize);
+        Fixtures.inject(service, "maxPageSize", 1000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // Uma operação = todos os 2.500 usuários
+    @Benchmark
+    public List<UserDTO> getAllUsers() {
+        return service.getAllUsers(null);
+    }
+
+    @Benchmark
+    public Object getUsersPage() {
+        return service.getUsersPage(null, 100);
+    }
+
+    @Benchmark
+    public UserDTO getUserAggregated() {
+        String id = ids.get(next++ % ids.size());
+        return service.getUserAggregated(id);
+    }
+}
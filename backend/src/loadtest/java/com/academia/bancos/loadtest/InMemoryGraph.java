@@ -0,0 +1,190 @@
+package com.academia.bancos.loadtest;
+
+import com.academia.bancos.metrics.StoreMetrics;
+import com.academia.bancos.model.node.UserNode;
+import com.academia.bancos.repository.UserGraphQueries;
+import com.academia.bancos.repository.UserRepositoryNeo4j;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Grafo FOLLOWS em memória no lugar do Neo4j: serve tanto as consultas do UserGraphQueries
+ * quanto o UserRepositoryNeo4j (repository()). Os graus saem do tamanho das listas de adjacência,
+ * então rebuildDegreeCounters não tem o que corrigir.
+ */
+public class InMemoryGraph implements UserGraphQueries {
+
+    private final InjectedLatency latency;
+    private final Set<String> nodes = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<String>> following = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> followers = new ConcurrentHashMap<>();
+
+    public InMemoryGraph(InjectedLatency latency) {
+        this.latency = latency;
+    }
+
+    // ================= UserGraphQueries =================
+
+    // Mesma semântica da consulta Cypher: até "limit" caminhos de 1..depth saltos, sem repetir aresta no caminho
+    @Override
+    public List<Edge> egoEdges(String userId, int depth, int limit) {
+        latency.pause(StoreMetrics.NEO4J);
+        if (!nodes.contains(userId)) return List.of();
+        Set<Edge> edges = new LinkedHashSet<>();
+        walk(userId, Math.max(1, Math.min(depth, MAX_DEPTH)), new ArrayDeque<>(), edges, new int[]{limit});
+        return new ArrayList<>(edges);
+    }
+
+    @Override
+    public Optional<Degree> degree(String userId) {
+        latency.pause(StoreMetrics.NEO4J);
+        if (!nodes.contains(userId)) return Optional.empty();
+        return Optional.of(degreeOf(userId));
+    }
+
+    @Override
+    public Map<String, Degree> degrees(Collection<String> userIds) {
+        latency.pause(StoreMetrics.NEO4J);
+        Map<String, Degree> degrees = new HashMap<>();
+        for (String id : userIds) {
+            if (nodes.contains(id)) degrees.put(id, degreeOf(id));
+        }
+        return degrees;
+    }
+
+    @Override
+    public long rebuildDegreeCounters() {
+        latency.pause(StoreMetrics.NEO4J);
+        return nodes.size();
+    }
+
+    @Override
+    public long forEachUserId(Consumer<String> consumer) {
+        latency.pause(StoreMetrics.NEO4J);
+        nodes.forEach(consumer);
+        return nodes.size();
+    }
+
+    @Override
+    public long forEachDegree(BiConsumer<String, Degree> consumer) {
+        latency.pause(StoreMetrics.NEO4J);
+        nodes.forEach(id -> consumer.accept(id, degreeOf(id)));
+        return nodes.size();
+    }
+
+    @Override
+    public long forEachEdge(BiConsumer<String, String> consumer) {
+        latency.pause(StoreMetrics.NEO4J);
+        long count = 0;
+        for (Map.Entry<String, Set<String>> row : following.entrySet()) {
+            for (String target : row.getValue()) {
+                consumer.accept(row.getKey(), target);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // ================= UserRepositoryNeo4j =================
+
+    public UserRepositoryNeo4j repository() {
+        return InMemoryRepositories.proxy(UserRepositoryNeo4j.class, StoreMetrics.NEO4J, latency, (method, a) -> switch (method) {
+            case "save" -> {
+                UserNode node = (UserNode) a[0];
+                nodes.add(node.getUserId());
+                if (node.getFollowing() != null) node.getFollowing().forEach(f -> link(node.getUserId(), f.getUserId()));
+                yield node;
+            }
+            case "existsById" -> nodes.contains((String) a[0]);
+            case "count" -> (long) nodes.size();
+            case "createRelationship" -> link((String) a[0], (String) a[1]);
+            case "createRelationships" -> {
+                String followerId = (String) a[0];
+                List<String> matched = new ArrayList<>();
+                for (Object followedId : (List<?>) a[1]) {
+                    if (link(followerId, (String) followedId)) matched.add((String) followedId);
+                }
+                yield matched;
+            }
+            case "deleteRelationship" -> {
+                unlink((String) a[0], (String) a[1]);
+                yield null;
+            }
+            case "deleteWithCounters" -> remove((String) a[0]);
+            case "deleteById" -> {
+                remove((String) a[0]);
+                yield null;
+            }
+            case "deleteAll" -> {
+                nodes.clear();
+                following.clear();
+                followers.clear();
+                yield null;
+            }
+            default -> throw new UnsupportedOperationException("UserRepositoryNeo4j." + method);
+        });
+    }
+
+    // ================= INTERNOS =================
+
+    // MATCH a, MATCH b, MERGE: só liga se os dois nós existem; devolve se b existia
+    public boolean link(String followerId, String followedId) {
+        if (!nodes.contains(followerId) || !nodes.contains(followedId)) return false;
+        following.computeIfAbsent(followerId, k -> ConcurrentHashMap.newKeySet()).add(followedId);
+        followers.computeIfAbsent(followedId, k -> ConcurrentHashMap.newKeySet()).add(followerId);
+        return true;
+    }
+
+    private void unlink(String followerId, String followedId) {
+        removeFrom(following, followerId, followedId);
+        removeFrom(followers, followedId, followerId);
+    }
+
+    // Devolve os vizinhos, como o RETURN do deleteWithCounters
+    private List<String> remove(String userId) {
+        Set<String> neighbours = new LinkedHashSet<>();
+        if (!nodes.remove(userId)) return List.of();
+        Set<String> out = following.remove(userId);
+        if (out != null) out.forEach(v -> {
+            removeFrom(followers, v, userId);
+            neighbours.add(v);
+        });
+        Set<String> in = followers.remove(userId);
+        if (in != null) in.forEach(v -> {
+            removeFrom(following, v, userId);
+            neighbours.add(v);
+        });
+        return new ArrayList<>(neighbours);
+    }
+
+    private Degree degreeOf(String userId) {
+        return new Degree(neighbours(followers, userId).size(), neighbours(following, userId).size());
+    }
+
+    private static Set<String> neighbours(Map<String, Set<String>> adjacency, String userId) {
+        return adjacency.getOrDefault(userId, Set.of());
+    }
+
+    private static void removeFrom(Map<String, Set<String>> adjacency, String userId, String neighbour) {
+        Set<String> row = adjacency.get(userId);
+        if (row != null) row.remove(neighbour);
+    }
+
+    private void walk(String from, int hopsLeft, Deque<Edge> path, Set<Edge> edges, int[] budget) {
+        for (String to : neighbours(following, from)) {
+            if (budget[0] <= 0) return;
+            Edge edge = new Edge(from, to);
+            if (path.contains(edge)) continue;
+            edges.add(edge);
+            budget[0]--;
+            if (hopsLeft > 1) {
+                path.push(edge);
+                walk(to, hopsLeft - 1, path, edges, budget);
+                path.pop();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.academia.bancos.loadtest;
+
+import com.academia.bancos.model.document.UserProfileDoc;
+import com.academia.bancos.repository.UserProfileQueries;
+import com.academia.bancos.repository.UserRepositoryMongo;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Busca de perfis sobre o stand-in do Mongo: o findAll paga um round trip, como a consulta indexada.
+ * Não há plano de execução; o explain só diz isso.
+ */
+public class InMemoryProfileSearch implements UserProfileQueries {
+
+    private final UserRepositoryMongo mongoRepo;
+
+    public InMemoryProfileSearch(UserRepositoryMongo mongoRepo) {
+        this.mongoRepo = mongoRepo;
+    }
+
+    @Override
+    public List<UserProfileDoc> search(Filter filter, int limit) {
+        return mongoRepo.findAll().stream().filter(filter::matches).limit(limit).toList();
+    }
+
+    @Override
+    public List<String> searchIds(Filter filter, int limit) {
+        return search(filter, limit).stream().map(UserProfileDoc::getUserId).toList();
+    }
+
+    @Override
+    public Map<String, Object> explain(Filter filter, int limit, boolean idsOnly) {
+        Map<String, Object> plan = new LinkedHashMap<>();
+        plan.put("stages", List.of("IN_MEMORY"));
+        plan.put("collscan", false);
+        plan.put("covered", false);
+        return plan;
+    }
+}
@@ -0,0 +1,67 @@
+package com.academia.bancos.loadtest;
+
+import com.academia.bancos.metrics.StoreMetrics;
+import com.academia.bancos.repository.ProfileStatsQueries;
+import com.academia.bancos.repository.UserRepositoryMongo;
+import com.academia.bancos.service.ProfileStatsService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * profile_stats em memória no lugar do Mongo. A "agregação" percorre os perfis do stand-in do
+ * Mongo com as mesmas chaves que o ProfileStatsService incrementa.
+ */
+public class InMemoryProfileStats implements ProfileStatsQueries {
+
+    private final InjectedLatency latency;
+    private final UserRepositoryMongo mongoRepo;
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    public InMemoryProfileStats(InjectedLatency latency, UserRepositoryMongo mongoRepo) {
+        this.latency = latency;
+        this.mongoRepo = mongoRepo;
+    }
+
+    @Override
+    public void increment(Map<String, Long> deltas) {
+        latency.pause(StoreMetrics.MONGO);
+        deltas.forEach((key, delta) -> counters.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(delta));
+    }
+
+    @Override
+    public List<Counter> counters() {
+        latency.pause(StoreMetrics.MONGO);
+        List<Counter> result = new ArrayList<>(counters.size());
+        counters.forEach((key, count) -> result.add(counter(key, count.get())));
+        return result;
+    }
+
+    @Override
+    public List<Counter> aggregate() {
+        Map<String, Long> counts = new HashMap<>();
+        // findAll do stand-in já paga a latência do Mongo
+        mongoRepo.findAll().forEach(doc -> ProfileStatsService.keys(doc).forEach(k -> counts.merge(k, 1L, Long::sum)));
+        List<Counter> result = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> result.add(counter(key, count)));
+        return result;
+    }
+
+    @Override
+    public long replaceAll(Collection<Counter> fresh) {
+        latency.pause(StoreMetrics.MONGO);
+        counters.clear();
+        fresh.forEach(c -> counters.put(c.key(), new AtomicLong(c.count())));
+        return fresh.size();
+    }
+
+    private static Counter counter(String key, long count) {
+        int sep = key.indexOf(':');
+        return new Counter(key.substring(0, sep), key.substring(sep + 1), count);
+    }
+}
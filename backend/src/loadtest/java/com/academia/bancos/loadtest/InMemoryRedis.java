@@ -0,0 +1,244 @@
+package com.academia.bancos.loadtest;
+
+import com.academia.bancos.metrics.StoreMetrics;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * StringRedisTemplate sem servidor: strings e sets em ConcurrentHashMap, com os comandos que a API
+ * usa (GET/SET/SETNX/MGET/MSET/INCRBY, SADD/SREM/SCARD, SCAN, UNLINK, PUBLISH e pipeline).
+ * Um comando avulso = um round trip de InjectedLatency; um pipeline inteiro = um round trip.
+ * PUBLISH entrega na hora para os assinantes locais (subscribe), no lugar do RedisMessageListenerContainer.
+ */
+public class InMemoryRedis extends StringRedisTemplate {
+
+    private final InjectedLatency latency;
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sets = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<String>>> subscribers = new ConcurrentHashMap<>();
+
+    private final ValueOperations<String, String> valueOps;
+    private final SetOperations<String, String> setOps;
+
+    public InMemoryRedis(InjectedLatency latency) {
+        this.latency = latency;
+        this.valueOps = commands(ValueOperations.class, this::valueCommand);
+        this.setOps = commands(SetOperations.class, this::setCommand);
+    }
+
+    // Sem RedisConnectionFactory: nada a validar
+    @Override
+    public void afterPropertiesSet() {
+    }
+
+    public void subscribe(String channel, Consumer<String> listener) {
+        subscribers.computeIfAbsent(channel, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public ValueOperations<String, String> opsForValue() {
+        return valueOps;
+    }
+
+    @Override
+    public SetOperations<String, String> opsForSet() {
+        return setOps;
+    }
+
+    @Override
+    public Boolean delete(String key) {
+        latency.pause(StoreMetrics.REDIS);
+        return remove(key);
+    }
+
+    @Override
+    public Long delete(Collection<String> keys) {
+        latency.pause(StoreMetrics.REDIS);
+        return keys.stream().filter(this::remove).count();
+    }
+
+    @Override
+    public Boolean unlink(String key) {
+        return delete(key);
+    }
+
+    @Override
+    public Long unlink(Collection<String> keys) {
+        return delete(keys);
+    }
+
+    @Override
+    public Long convertAndSend(String channel, Object message) {
+        latency.pause(StoreMetrics.REDIS);
+        return publish(channel, String.valueOf(message));
+    }
+
+    // Varredura sobre uma cópia das chaves (o SCAN real também não garante ver escritas concorrentes)
+    @Override
+    public Cursor<String> scan(ScanOptions options) {
+        latency.pause(StoreMetrics.REDIS);
+        Pattern pattern = glob(options.getPattern());
+        List<String> keys = new ArrayList<>();
+        for (String key : strings.keySet()) if (pattern.matcher(key).matches()) keys.add(key);
+        for (String key : sets.keySet()) if (pattern.matcher(key).matches()) keys.add(key);
+        Iterator<String> it = keys.iterator();
+        boolean[] closed = {false};
+        long[] position = {0};
+        return commands(Cursor.class, (method, a) -> switch (method) {
+            case "hasNext" -> !closed[0] && it.hasNext();
+            case "next" -> {
+                position[0]++;
+                yield it.next();
+            }
+            case "close" -> {
+                closed[0] = true;
+                yield null;
+            }
+            case "isClosed" -> closed[0];
+            case "getPosition" -> position[0];
+            default -> throw new UnsupportedOperationException("Cursor." + method);
+        });
+    }
+
+    // Os comandos do callback rodam direto; o round trip é pago uma vez no fim
+    @Override
+    public List<Object> executePipelined(RedisCallback<?> action) {
+        List<Object> results = new ArrayList<>();
+        StringRedisConnection connection = commands(StringRedisConnection.class, (method, a) -> {
+            Object result = switch (method) {
+                case "get" -> strings.get((String) a[0]);
+                case "set" -> {
+                    strings.put((String) a[0], (String) a[1]);
+                    yield true;
+                }
+                case "mSetString" -> {
+                    @SuppressWarnings("unchecked")
+                    Map<String, String> entries = (Map<String, String>) a[0];
+                    strings.putAll(entries);
+                    yield true;
+                }
+                case "incrBy" -> incrBy((String) a[0], (Long) a[1]);
+                case "sAdd" -> add((String) a[0], (Object[]) a[1]);
+                case "sRem" -> removeMembers((String) a[0], (Object[]) a[1]);
+                case "publish" -> publish((String) a[0], (String) a[1]);
+                case "isPipelined" -> true;
+                default -> throw new UnsupportedOperationException("StringRedisConnection." + method);
+            };
+            if (!method.equals("isPipelined")) results.add(result);
+            // Em pipeline os comandos devolvem null; o resultado vem na lista
+            return method.equals("isPipelined") ? result : null;
+        });
+        action.doInRedis(connection);
+        latency.pause(StoreMetrics.REDIS);
+        return results;
+    }
+
+    // ================= COMANDOS =================
+
+    private Object valueCommand(String method, Object[] a) {
+        latency.pause(StoreMetrics.REDIS);
+        return switch (method) {
+            case "get" -> strings.get((String) a[0]);
+            case "set" -> {
+                // set(k, v) e variantes com expiração (TTL ignorado)
+                strings.put((String) a[0], (String) a[1]);
+                yield null;
+            }
+            case "setIfAbsent" -> strings.putIfAbsent((String) a[0], (String) a[1]) == null;
+            case "multiGet" -> {
+                List<String> values = new ArrayList<>();
+                for (Object key : (Collection<?>) a[0]) values.add(strings.get((String) key));
+                yield values;
+            }
+            case "multiSet" -> {
+                @SuppressWarnings("unchecked")
+                Map<String, String> entries = (Map<String, String>) a[0];
+                strings.putAll(entries);
+                yield null;
+            }
+            case "increment" -> incrBy((String) a[0], a.length > 1 ? ((Number) a[1]).longValue() : 1L);
+            default -> throw new UnsupportedOperationException("ValueOperations." + method);
+        };
+    }
+
+    private Object setCommand(String method, Object[] a) {
+        latency.pause(StoreMetrics.REDIS);
+        return switch (method) {
+            case "add" -> add((String) a[0], (Object[]) a[1]);
+            case "remove" -> removeMembers((String) a[0], (Object[]) a[1]);
+            case "size" -> (long) sets.getOrDefault((String) a[0], Set.of()).size();
+            case "isMember" -> sets.getOrDefault((String) a[0], Set.of()).contains(a[1]);
+            case "members" -> new HashSet<>(sets.getOrDefault((String) a[0], Set.of()));
+            default -> throw new UnsupportedOperationException("SetOperations." + method);
+        };
+    }
+
+    private Long incrBy(String key, long delta) {
+        return Long.parseLong(strings.merge(key, Long.toString(delta),
+                (old, d) -> Long.toString(Long.parseLong(old) + Long.parseLong(d))));
+    }
+
+    private Long add(String key, Object[] members) {
+        Set<String> set = sets.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+        long added = 0;
+        for (Object member : members) if (set.add((String) member)) added++;
+        return added;
+    }
+
+    private Long removeMembers(String key, Object[] members) {
+        Set<String> set = sets.get(key);
+        if (set == null) return 0L;
+        long removed = 0;
+        for (Object member : members) if (set.remove(member)) removed++;
+        return removed;
+    }
+
+    private boolean remove(String key) {
+        return strings.remove(key) != null | sets.remove(key) != null;
+    }
+
+    private Long publish(String channel, String message) {
+        List<Consumer<String>> listeners = subscribers.getOrDefault(channel, List.of());
+        listeners.forEach(listener -> listener.accept(message));
+        return (long) listeners.size();
+    }
+
+    private static Pattern glob(String pattern) {
+        if (pattern == null) return Pattern.compile(".*");
+        StringBuilder regex = new StringBuilder();
+        for (char c : pattern.toCharArray()) {
+            switch (c) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                default -> regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T commands(Class<?> type, BiFunction<String, Object[], Object> handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, m, args) -> {
+            Object[] a = args != null ? args : new Object[0];
+            return switch (m.getName()) {
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == a[0];
+                case "toString" -> "InMemory(" + type.getSimpleName() + ")";
+                default -> handler.apply(m.getName(), a);
+            };
+        });
+    }
+}
@@ -0,0 +1,148 @@
+package com.academia.bancos.loadtest;
+
+import com.academia.bancos.metrics.StoreMetrics;
+import com.academia.bancos.model.document.UserProfileDoc;
+import com.academia.bancos.model.entity.OutboxEvent;
+import com.academia.bancos.model.entity.UserEntity;
+import com.academia.bancos.repository.OutboxRepository;
+import com.academia.bancos.repository.UserRepositoryMongo;
+import com.academia.bancos.repository.UserRepositoryPG;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Repositórios Spring Data em memória (via Proxy), com os métodos que a API usa.
+ * Cada chamada paga um round trip de InjectedLatency; as entidades são copiadas na entrada e na
+ * saída, como um banco de verdade (quem altera o objeto lido precisa chamar save).
+ */
+public final class InMemoryRepositories {
+
+    private InMemoryRepositories() {}
+
+    public static UserRepositoryPG postgres(InjectedLatency latency) {
+        Map<String, UserEntity> rows = new ConcurrentHashMap<>();
+        Map<String, String> emailIndex = new ConcurrentHashMap<>();
+        return proxy(UserRepositoryPG.class, StoreMetrics.POSTGRES, latency, (method, a) -> switch (method) {
+            case "save" -> {
+                UserEntity row = copy((UserEntity) a[0]);
+                UserEntity old = rows.put(row.getUserId(), row);
+                if (old != null && old.getEmail() != null) emailIndex.remove(old.getEmail(), old.getUserId());
+                if (row.getEmail() != null) emailIndex.put(row.getEmail(), row.getUserId());
+                yield copy(row);
+            }
+            case "findById" -> Optional.ofNullable(rows.get((String) a[0])).map(InMemoryRepositories::copy);
+            case "existsById" -> rows.containsKey((String) a[0]);
+            case "findAllById" -> findAll(rows, (Iterable<?>) a[0]);
+            case "findAll" -> rows.values().stream().map(InMemoryRepositories::copy).toList();
+            case "findByEmail" -> Optional.ofNullable(emailIndex.get((String) a[0])).map(rows::get).map(InMemoryRepositories::copy);
+            case "deleteById" -> {
+                UserEntity old = rows.remove((String) a[0]);
+                if (old != null && old.getEmail() != null) emailIndex.remove(old.getEmail(), old.getUserId());
+                yield null;
+            }
+            case "deleteAll" -> {
+                rows.clear();
+                emailIndex.clear();
+                yield null;
+            }
+            case "count" -> (long) rows.size();
+            default -> throw new UnsupportedOperationException("UserRepositoryPG." + method);
+        });
+    }
+
+    public static UserRepositoryMongo mongo(InjectedLatency latency) {
+        // Ordenado por _id, como o índice padrão do Mongo (keyset do GET /api/users?limit=)
+        ConcurrentSkipListMap<String, UserProfileDoc> docs = new ConcurrentSkipListMap<>();
+        return proxy(UserRepositoryMongo.class, StoreMetrics.MONGO, latency, (method, a) -> switch (method) {
+            case "save" -> {
+                UserProfileDoc doc = copy((UserProfileDoc) a[0]);
+                docs.put(doc.getUserId(), doc);
+                yield copy(doc);
+            }
+            case "saveAll" -> {
+                List<UserProfileDoc> saved = new ArrayList<>();
+                for (Object o : (Iterable<?>) a[0]) {
+                    UserProfileDoc doc = copy((UserProfileDoc) o);
+                    docs.put(doc.getUserId(), doc);
+                    saved.add(copy(doc));
+                }
+                yield saved;
+            }
+            case "findById" -> Optional.ofNullable(docs.get((String) a[0])).map(InMemoryRepositories::copy);
+            case "existsById" -> docs.containsKey((String) a[0]);
+            case "findAllById" -> findAll(docs, (Iterable<?>) a[0]);
+            case "findAll" -> docs.values().stream().map(InMemoryRepositories::copy).toList();
+            case "findByUserIdGreaterThan" -> docs.tailMap((String) a[0], false).values().stream()
+                    .limit(((Pageable) a[1]).getPageSize())
+                    .map(InMemoryRepositories::copy)
+                    .toList();
+            case "deleteById" -> {
+                docs.remove((String) a[0]);
+                yield null;
+            }
+            case "deleteAll" -> {
+                docs.clear();
+                yield null;
+            }
+            case "count" -> (long) docs.size();
+            default -> throw new UnsupportedOperationException("UserRepositoryMongo." + method);
+        });
+    }
+
+    // Só para o UserService/OutboxController subirem: o perfil loadtest força app.writes.mode=sync
+    public static OutboxRepository outbox(InjectedLatency latency) {
+        Map<Long, OutboxEvent> events = new ConcurrentSkipListMap<>();
+        AtomicLong ids = new AtomicLong();
+        return proxy(OutboxRepository.class, StoreMetrics.POSTGRES, latency, (method, a) -> switch (method) {
+            case "save" -> {
+                OutboxEvent event = (OutboxEvent) a[0];
+                if (event.getId() == null) event.setId(ids.incrementAndGet());
+                events.put(event.getId(), event);
+                yield event;
+            }
+            case "countByStatus" -> events.values().stream().filter(e -> e.getStatus() == a[0]).count();
+            case "findFirstByStatusOrderByIdAsc" -> events.values().stream().filter(e -> e.getStatus() == a[0]).findFirst();
+            default -> throw new UnsupportedOperationException("OutboxRepository." + method);
+        });
+    }
+
+    // ================= INTERNOS =================
+
+    @SuppressWarnings("unchecked")
+    static <T> T proxy(Class<T> type, String store, InjectedLatency latency, BiFunction<String, Object[], Object> handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, m, args) -> {
+            Object[] a = args != null ? args : new Object[0];
+            switch (m.getName()) {
+                case "hashCode": return System.identityHashCode(proxy);
+                case "equals": return proxy == a[0];
+                case "toString": return "InMemory(" + type.getSimpleName() + ")";
+                default:
+                    latency.pause(store);
+                    return handler.apply(m.getName(), a);
+            }
+        });
+    }
+
+    private static <T> List<T> findAll(Map<String, T> rows, Iterable<?> ids) {
+        List<T> found = new ArrayList<>();
+        for (Object id : ids) {
+            T row = rows.get((String) id);
+            if (row != null) found.add(copy(row));
+        }
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T copy(T source) {
+        T target = (T) BeanUtils.instantiateClass(source.getClass());
+        BeanUtils.copyProperties(source, target);
+        return target;
+    }
+}
@@ -0,0 +1,67 @@
+package com.academia.bancos.loadtest;
+
+import com.academia.bancos.metrics.StoreMetrics;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Latência artificial por banco para os stand-ins em memória: base + jitter uniforme, e com
+ * probabilidade spikeRate um pico de spikeUs (cauda lenta, para exercitar timeouts).
+ * A thread fica bloqueada como ficaria esperando a resposta do driver real.
+ */
+public class InjectedLatency {
+
+    private final Map<String, Long> baseUs;
+    private final long jitterUs;
+    private final double spikeRate;
+    private final long spikeUs;
+
+    // Seed e outras cargas internas não pagam latência
+    private final ThreadLocal<Boolean> bypass = ThreadLocal.withInitial(() -> false);
+
+    public InjectedLatency(long postgresUs, long mongoUs, long redisUs, long neo4jUs,
+                           long jitterUs, double spikeRate, long spikeUs) {
+        this.baseUs = Map.of(
+                StoreMetrics.POSTGRES, postgresUs,
+                StoreMetrics.MONGO, mongoUs,
+                StoreMetrics.REDIS, redisUs,
+                StoreMetrics.NEO4J, neo4jUs);
+        this.jitterUs = jitterUs;
+        this.spikeRate = spikeRate;
+        this.spikeUs = spikeUs;
+    }
+
+    // Um round trip ao banco
+    public void pause(String store) {
+        if (bypass.get()) return;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long us = baseUs.getOrDefault(store, 0L);
+        if (jitterUs > 0) us += random.nextLong(jitterUs + 1);
+        if (spikeRate > 0 && random.nextDouble() < spikeRate) us += spikeUs;
+        if (us <= 0) return;
+
+        // parkNanos pode voltar antes do prazo; repete até cumprir
+        long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(us);
+        long left;
+        while ((left = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(left);
+        }
+    }
+
+    public void withoutDelay(Runnable action) {
+        bypass.set(true);
+        try {
+            action.run();
+        } finally {
+            bypass.set(false);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "base(us)=" + baseUs + ", jitter=" + jitterUs + "us, spikes=" + spikeRate + " x " + spikeUs + "us";
+    }
+}
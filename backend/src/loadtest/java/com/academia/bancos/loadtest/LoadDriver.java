@@ -0,0 +1,324 @@
+package com.academia.bancos.loadtest;
+
+import com.academia.bancos.model.dto.UserDTO;
+import com.academia.bancos.seed.BulkUserLoader;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga em malha aberta contra a API REST: dispara operações a uma taxa fixa
+ * (--rate por segundo), sorteadas pelo --mix, e mede cada uma a partir do instante em que DEVERIA
+ * ter começado. Assim a fila formada quando o servidor atrasa entra na latência
+ * (sem "coordinated omission").
+ *
+ * Operações (o que o frontend faz):
+ *   login     POST /api/auth/login
+ *   dashboard GET /api/users/{id} + /api/logs/{id} + /api/network/{id} em paralelo
+ *   list      GET /api/users
+ *   follow    POST /api/users/{a}/follow/{b}
+ *
+ * Saída: tabela no console, um JSON com contagens/percentis por operação e um .hgrm por operação
+ * (HdrHistogram, para plotar). Com --baseline=<json de outra execução> imprime as diferenças.
+ *
+ * mvn -Ploadtest compile exec:java -Dexec.args="--rate=200 --duration=60 --mix=login:20,dashboard:50,list:10,follow:20"
+ */
+public final class LoadDriver {
+
+    enum Op { LOGIN, DASHBOARD, LIST, FOLLOW }
+
+    record User(String userId, String email, String password) {}
+
+    // Uma execução: taxa alvo, janelas (segundos), teto de requisições em voo e pesos do mix
+    record Options(URI baseUrl, double rate, int warmupSeconds, int durationSeconds, int maxInFlight,
+                   Map<Op, Integer> mix, int users, Path out, Path baseline) {}
+
+    // 60 s em microssegundos, 3 dígitos significativos
+    private static final long MAX_LATENCY_US = TimeUnit.SECONDS.toMicros(60);
+
+    private final Options options;
+    private final List<User> users;
+    private final Op[] wheel;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final Map<Op, Recorder> recorders = new EnumMap<>(Op.class);
+    private final Map<Op, LongAdder> errors = new EnumMap<>(Op.class);
+
+    private LoadDriver(Options options, List<User> users) {
+        this.options = options;
+        this.users = users;
+        this.wheel = options.mix().entrySet().stream()
+                .flatMap(e -> Collections.nCopies(e.getValue(), e.getKey()).stream())
+                .toArray(Op[]::new);
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Op op : Op.values()) {
+            recorders.put(op, new Recorder(MAX_LATENCY_US, 3));
+            errors.put(op, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = parse(args);
+        List<User> users = loadUsers(options.users());
+        if (options.mix().isEmpty() || users.size() < 2) {
+            System.err.println("Nada para executar: mix vazio ou menos de 2 usuários");
+            System.exit(2);
+        }
+        new LoadDriver(options, users).run();
+    }
+
+    private void run() throws Exception {
+        System.out.printf("🚦 %s | %.0f op/s | aquecimento %ds + medição %ds | mix %s | %d usuários%n",
+                options.baseUrl(), options.rate(), options.warmupSeconds(), options.durationSeconds(),
+                options.mix(), users.size());
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate());
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        long late = 0;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) break;
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+            // Teto atingido: o gerador espera, e a espera conta na latência das próximas operações
+            if (!inFlight.tryAcquire()) {
+                late++;
+                inFlight.acquire();
+            }
+
+            Op op = wheel[ThreadLocalRandom.current().nextInt(wheel.length)];
+            execute(op).whenComplete((ok, error) -> {
+                inFlight.release();
+                if (intended < measureFrom) return;
+                long latencyUs = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                recorders.get(op).recordValue(Math.min(latencyUs, MAX_LATENCY_US));
+                if (error != null || !ok) errors.get(op).increment();
+            });
+        }
+        inFlight.acquire(options.maxInFlight());
+        if (late > 0) System.out.println("⚠️ " + late + " disparos esperaram por --max-in-flight=" + options.maxInFlight());
+
+        report();
+    }
+
+    // ================= OPERAÇÕES =================
+
+    private CompletableFuture<Boolean> execute(Op op) {
+        User user = randomUser();
+        return switch (op) {
+            case LOGIN -> send(post("/api/auth/login", Map.of("email", user.email(), "password", user.password())));
+            case DASHBOARD -> all(
+                    send(get("/api/users/" + user.userId())),
+                    send(get("/api/logs/" + user.userId())),
+                    send(get("/api/network/" + user.userId())));
+            case LIST -> send(get("/api/users"));
+            case FOLLOW -> {
+                User target = randomUser();
+                while (target == user) target = randomUser();
+                yield send(post("/api/users/" + user.userId() + "/follow/" + target.userId(), Map.of()));
+            }
+        };
+    }
+
+    private CompletableFuture<Boolean> send(HttpRequest request) {
+        return http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> response.statusCode() < 400)
+                .exceptionally(error -> false);
+    }
+
+    @SafeVarargs
+    private static CompletableFuture<Boolean> all(CompletableFuture<Boolean>... calls) {
+        return CompletableFuture.allOf(calls)
+                .thenApply(v -> Arrays.stream(calls).allMatch(CompletableFuture::join));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(options.baseUrl().resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(options.baseUrl().resolve(path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private User randomUser() {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+
+    // ================= RELATÓRIO =================
+
+    private void report() throws IOException {
+        Path out = options.out();
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        String base = out.getFileName().toString().replaceFirst("\\.json$", "");
+
+        Map<String, Object> ops = new LinkedHashMap<>();
+        long totalCount = 0;
+        long totalErrors = 0;
+        System.out.printf("%n%-10s %9s %7s %9s %8s %8s %8s %8s %8s  (ms)%n",
+                "op", "count", "errors", "op/s", "p50", "p90", "p99", "p99.9", "max");
+        for (Op op : Op.values()) {
+            if (!options.mix().containsKey(op)) continue;
+            Histogram h = recorders.get(op).getIntervalHistogram();
+            long count = h.getTotalCount();
+            long failed = errors.get(op).sum();
+            double throughput = (double) count / options.durationSeconds();
+            totalCount += count;
+            totalErrors += failed;
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", count);
+            stats.put("errors", failed);
+            stats.put("throughput", round(throughput));
+            stats.put("meanMs", round(h.getMean() / 1000));
+            stats.put("p50Ms", ms(h, 50));
+            stats.put("p90Ms", ms(h, 90));
+            stats.put("p99Ms", ms(h, 99));
+            stats.put("p999Ms", ms(h, 99.9));
+            stats.put("maxMs", round(h.getMaxValue() / 1000.0));
+            ops.put(op.name().toLowerCase(), stats);
+
+            System.out.printf("%-10s %9d %7d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f%n", op.name().toLowerCase(),
+                    count, failed, throughput, ms(h, 50), ms(h, 90), ms(h, 99), ms(h, 99.9), h.getMaxValue() / 1000.0);
+
+            // Distribuição completa em ms (formato .hgrm do HdrHistogram)
+            try (PrintStream hgrm = new PrintStream(out.resolveSibling(base + "-" + op.name().toLowerCase() + ".hgrm").toFile())) {
+                h.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", LocalDateTime.now().minusSeconds(options.warmupSeconds() + options.durationSeconds()).toString());
+        report.put("baseUrl", options.baseUrl().toString());
+        report.put("targetRate", options.rate());
+        report.put("durationSeconds", options.durationSeconds());
+        report.put("mix", options.mix());
+        report.put("count", totalCount);
+        report.put("errors", totalErrors);
+        report.put("throughput", round((double) totalCount / options.durationSeconds()));
+        report.put("ops", ops);
+        objectMapper.writeValue(out.toFile(), report);
+        System.out.println("\n📄 Relatório: " + out.toAbsolutePath());
+
+        if (options.baseline() != null) compare(report, objectMapper.readTree(options.baseline().toFile()));
+    }
+
+    // Diferença relativa contra outra execução (mesmo mix/taxa, build diferente)
+    private void compare(Map<String, Object> current, JsonNode baseline) {
+        System.out.printf("%nComparação com %s (%% = atual vs baseline)%n", options.baseline());
+        System.out.printf("%-10s %16s %16s %16s %16s%n", "op", "op/s", "p50 ms", "p99 ms", "p99.9 ms");
+        JsonNode now = objectMapper.valueToTree(current).get("ops");
+        Iterator<String> names = now.fieldNames();
+        while (names.hasNext()) {
+            String op = names.next();
+            JsonNode before = baseline.path("ops").path(op);
+            if (before.isMissingNode()) continue;
+            JsonNode after = now.get(op);
+            System.out.printf("%-10s %16s %16s %16s %16s%n", op,
+                    delta(before, after, "throughput"), delta(before, after, "p50Ms"),
+                    delta(before, after, "p99Ms"), delta(before, after, "p999Ms"));
+        }
+    }
+
+    private static String delta(JsonNode before, JsonNode after, String field) {
+        double b = before.path(field).asDouble();
+        double a = after.path(field).asDouble();
+        String change = b == 0 ? "n/a" : String.format("%+.1f%%", (a - b) / b * 100);
+        return String.format("%.2f (%s)", a, change);
+    }
+
+    private static double ms(Histogram h, double percentile) {
+        return round(h.getValueAtPercentile(percentile) / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    // ================= ENTRADA =================
+
+    // Mesmos usuários do seed (credenciais do netflix_userbase.json) + admin
+    private static List<User> loadUsers(int limit) throws IOException {
+        List<User> users = new ArrayList<>();
+        users.add(new User(LoadTestSeeder.ADMIN_ID, LoadTestSeeder.ADMIN_EMAIL, LoadTestSeeder.ADMIN_PASSWORD));
+        try (InputStream in = new ClassPathResource("netflix_userbase.json").getInputStream()) {
+            for (Map<String, Object> row : new ObjectMapper().readValue(in, new TypeReference<List<Map<String, Object>>>() {})) {
+                if (users.size() >= limit) break;
+                UserDTO dto = BulkUserLoader.mapToDto(row);
+                if (dto.getUserId() != null && dto.getEmail() != null && dto.getPassword() != null) {
+                    users.add(new User(dto.getUserId(), dto.getEmail(), dto.getPassword()));
+                }
+            }
+        }
+        return users;
+    }
+
+    // --chave=valor; o que não vier usa o padrão
+    private static Options parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) throw new IllegalArgumentException("Argumento inválido: " + arg);
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        Map<Op, Integer> mix = new EnumMap<>(Op.class);
+        for (String part : values.getOrDefault("mix", "login:20,dashboard:50,list:10,follow:20").split(",")) {
+            String[] kv = part.split(":");
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) mix.put(Op.valueOf(kv[0].trim().toUpperCase()), weight);
+        }
+
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        return new Options(
+                URI.create(values.getOrDefault("url", "http://localhost:8080")),
+                Double.parseDouble(values.getOrDefault("rate", "100")),
+                Integer.parseInt(values.getOrDefault("warmup", "10")),
+                Integer.parseInt(values.getOrDefault("duration", "60")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "512")),
+                mix,
+                Integer.parseInt(values.getOrDefault("users", String.valueOf(Integer.MAX_VALUE))),
+                Path.of(values.getOrDefault("out", "target/loadtest/report-" + stamp + ".json")),
+                values.containsKey("baseline") ? Path.of(values.get("baseline")) : null);
+    }
+}
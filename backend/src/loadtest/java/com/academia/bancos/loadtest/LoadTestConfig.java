@@ -0,0 +1,107 @@
+package com.academia.bancos.loadtest;
+
+import com.academia.bancos.repository.OutboxRepository;
+import com.academia.bancos.repository.UserRepositoryMongo;
+import com.academia.bancos.repository.UserRepositoryNeo4j;
+import com.academia.bancos.repository.UserRepositoryPG;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Perfil "loadtest": os quatro bancos viram stand-ins em memória com latência injetada.
+ * As auto-configurações de DataSource/JPA/Mongo/Redis/Neo4j ficam desligadas em
+ * application-loadtest.properties, e os beans que falam direto com os drivers (seed em lote,
+ * OutboxApplier, listener pub/sub, UserGraphQueriesNeo4j, ProfileStatsQueriesMongo,
+ * UserProfileQueriesMongo) têm @Profile("!loadtest"). As interfaces de consulta são atendidas
+ * pelos stand-ins declarados aqui.
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestConfig {
+
+    @Bean
+    public InjectedLatency injectedLatency(@Value("${app.loadtest.latency.postgres-us:1500}") long postgresUs,
+                                           @Value("${app.loadtest.latency.mongo-us:1200}") long mongoUs,
+                                           @Value("${app.loadtest.latency.redis-us:300}") long redisUs,
+                                           @Value("${app.loadtest.latency.neo4j-us:2000}") long neo4jUs,
+                                           @Value("${app.loadtest.latency.jitter-us:500}") long jitterUs,
+                                           @Value("${app.loadtest.latency.spike-rate:0.0}") double spikeRate,
+                                           @Value("${app.loadtest.latency.spike-us:0}") long spikeUs) {
+        return new InjectedLatency(postgresUs, mongoUs, redisUs, neo4jUs, jitterUs, spikeRate, spikeUs);
+    }
+
+    @Bean
+    public UserRepositoryPG userRepositoryPG(InjectedLatency latency) {
+        return InMemoryRepositories.postgres(latency);
+    }
+
+    @Bean
+    public UserRepositoryMongo userRepositoryMongo(InjectedLatency latency) {
+        return InMemoryRepositories.mongo(latency);
+    }
+
+    @Bean
+    public OutboxRepository outboxRepository(InjectedLatency latency) {
+        return InMemoryRepositories.outbox(latency);
+    }
+
+    @Bean
+    public InMemoryGraph userGraphQueries(InjectedLatency latency) {
+        return new InMemoryGraph(latency);
+    }
+
+    @Bean
+    public UserRepositoryNeo4j userRepositoryNeo4j(InMemoryGraph graph) {
+        return graph.repository();
+    }
+
+    @Bean
+    public InMemoryProfileStats profileStatsQueries(InjectedLatency latency, UserRepositoryMongo mongoRepo) {
+        return new InMemoryProfileStats(latency, mongoRepo);
+    }
+
+    @Bean
+    public InMemoryProfileSearch userProfileQueries(UserRepositoryMongo mongoRepo) {
+        return new InMemoryProfileSearch(mongoRepo);
+    }
+
+    @Bean
+    public InMemoryRedis stringRedisTemplate(InjectedLatency latency) {
+        return new InMemoryRedis(latency);
+    }
+
+    // @Transactional do UserService continua funcionando (propagação inclusive), só sem recurso por trás
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new AbstractPlatformTransactionManager() {
+            @Override
+            protected Object doGetTransaction() {
+                return TransactionSynchronizationManager.isActualTransactionActive();
+            }
+
+            @Override
+            protected boolean isExistingTransaction(Object transaction) {
+                return (Boolean) transaction;
+            }
+
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+            }
+
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+            }
+
+            @Override
+            protected void doRollback(DefaultTransactionStatus status) {
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package com.academia.bancos.loadtest;
+
+import com.academia.bancos.graph.GraphSnapshotService;
+import com.academia.bancos.model.document.UserProfileDoc;
+import com.academia.bancos.model.dto.UserDTO;
+import com.academia.bancos.model.entity.UserEntity;
+import com.academia.bancos.model.node.UserNode;
+import com.academia.bancos.repository.UserRepositoryMongo;
+import com.academia.bancos.repository.UserRepositoryNeo4j;
+import com.academia.bancos.repository.UserRepositoryPG;
+import com.academia.bancos.seed.BulkUserLoader;
+import com.academia.bancos.service.CredentialCache;
+import com.academia.bancos.service.ProfileStatsService;
+import com.academia.bancos.service.RedisKeyspace;
+import com.academia.bancos.service.UserNearCache;
+import com.academia.bancos.service.UserVersions;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Equivalente do DataSeeder para o perfil loadtest: mesmo admin, mesmos JSONs, gravados direto
+ * nos stand-ins (sem latência injetada) para a API subir pronta para o LoadDriver.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestSeeder implements CommandLineRunner {
+
+    static final String ADMIN_ID = "admin-master";
+    static final String ADMIN_EMAIL = "admin@admin.com";
+    static final String ADMIN_PASSWORD = "123456";
+
+    @Autowired private UserRepositoryPG postgresRepo;
+    @Autowired private UserRepositoryMongo mongoRepo;
+    @Autowired private UserRepositoryNeo4j neo4jRepo;
+    @Autowired private InMemoryGraph graph;
+    @Autowired private InMemoryRedis redis;
+    @Autowired private InjectedLatency latency;
+    @Autowired private UserNearCache nearCache;
+    @Autowired private CredentialCache credentialCache;
+    @Autowired private UserVersions versions;
+    @Autowired private GraphSnapshotService graphSnapshot;
+    @Autowired private ProfileStatsService profileStats;
+
+    @Value("${app.seed.user-limit:50}")
+    private int userLimit;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public void run(String... args) throws IOException {
+        // Faz o papel do RedisMessageListenerContainer
+        redis.subscribe(UserNearCache.CHANNEL, nearCache::onInvalidation);
+        redis.subscribe(UserNearCache.CHANNEL, credentialCache::onInvalidation);
+        redis.subscribe(UserNearCache.CHANNEL, versions::onInvalidation);
+
+        long start = System.currentTimeMillis();
+        List<UserDTO> users = new ArrayList<>();
+        for (Map<String, Object> row : read("netflix_userbase.json", new TypeReference<List<Map<String, Object>>>() {})) {
+            if (users.size() >= userLimit) break;
+            UserDTO dto = BulkUserLoader.mapToDto(row);
+            if (dto.getUserId() != null && !ADMIN_ID.equals(dto.getUserId())) users.add(dto);
+        }
+        List<Map<String, String>> relationships = read("relationships.json", new TypeReference<>() {});
+
+        latency.withoutDelay(() -> {
+            saveAdmin();
+            users.forEach(this::save);
+            relationships.forEach(rel -> graph.link(rel.get("followerId"), rel.get("followedId")));
+            users.stream().limit(5).forEach(u -> {
+                graph.link(ADMIN_ID, u.getUserId());
+                graph.link(u.getUserId(), ADMIN_ID);
+            });
+            graphSnapshot.rebuild();
+            profileStats.rebuild();
+        });
+
+        System.out.println("🧪 Loadtest: " + (users.size() + 1) + " usuários em memória em "
+                + (System.currentTimeMillis() - start) + " ms; latência injetada " + latency);
+    }
+
+    private void saveAdmin() {
+        UserDTO admin = new UserDTO();
+        admin.setUserId(ADMIN_ID);
+        admin.setEmail(ADMIN_EMAIL);
+        admin.setPassword(ADMIN_PASSWORD);
+        admin.setAge(30);
+        admin.setCountry("Brazil");
+        admin.setGenres(Arrays.asList("Action", "Sci-Fi", "Tech", "Coding"));
+        admin.setLoginCount(999);
+        save(admin);
+    }
+
+    private void save(UserDTO dto) {
+        UserEntity entity = new UserEntity();
+        entity.setUserId(dto.getUserId());
+        entity.setEmail(dto.getEmail());
+        entity.setPasswordHash(dto.getPassword());
+        postgresRepo.save(entity);
+
+        UserProfileDoc doc = new UserProfileDoc();
+        doc.setUserId(dto.getUserId());
+        doc.setAge(dto.getAge());
+        doc.setCountry(dto.getCountry());
+        doc.setSubscriptionType(dto.getSubscriptionType());
+        doc.setGenres(dto.getGenres());
+        mongoRepo.save(doc);
+
+        UserNode node = new UserNode();
+        node.setUserId(dto.getUserId());
+        neo4jRepo.save(node);
+
+        String loginCount = dto.getLoginCount() != null ? dto.getLoginCount().toString() : "0";
+        redis.opsForValue().set("login_count:" + dto.getUserId(), loginCount);
+        redis.opsForSet().add(RedisKeyspace.registryKey(RedisKeyspace.LOGIN_COUNT), dto.getUserId());
+    }
+
+    private <T> T read(String resource, TypeReference<T> type) throws IOException {
+        try (InputStream in = new ClassPathResource(resource).getInputStream()) {
+            return objectMapper.readValue(in, type);
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.academia.bancos;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class BancosApplication {
     public static void main(String[] args) {
         SpringApplication.run(BancosApplication.class, args);
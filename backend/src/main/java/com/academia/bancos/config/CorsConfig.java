@@ -13,6 +13,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:4200") // SÓ para o seu Front Angular
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "HEAD", "TRACE", "CONNECT")
                 .allowedHeaders("*")
+                .exposedHeaders("ETag") // Front pode reenviar como If-None-Match (GET condicional)
                 .allowCredentials(true);
     }
 }
\ No newline at end of file
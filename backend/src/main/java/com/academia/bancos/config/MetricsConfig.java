@@ -0,0 +1,55 @@
+package com.academia.bancos.config;
+
+import com.academia.bancos.model.entity.OutboxEvent;
+import com.academia.bancos.repository.OutboxRepository;
+import com.academia.bancos.service.OutboxService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.neo4j.driver.MetricsAdapter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.neo4j.ConfigBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Gauges de pool (e do outbox) que o Spring Boot não registra sozinho.
+ * (Hikari, pool do driver Mongo e latência de comandos do Lettuce já vêm do actuator.)
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Pool de conexões do driver Neo4j publicado no registry global do Micrometer
+    @Bean
+    public ConfigBuilderCustomizer neo4jDriverMetrics() {
+        return builder -> builder.withMetricsAdapter(MetricsAdapter.MICROMETER);
+    }
+
+    // Fila/threads ativas do pool de I/O usado no fan-out aos bancos
+    @Bean
+    public MeterBinder storeExecutorMetrics(@Qualifier("storeExecutor") ExecutorService storeExecutor) {
+        return registry -> new ExecutorServiceMetrics(storeExecutor, "store-io", List.of()).bindTo(registry);
+    }
+
+    // Lag e backlog do outbox (os mesmos números do GET /api/outbox/stats), só no modo outbox
+    @Bean
+    @ConditionalOnProperty(name = "app.writes.mode", havingValue = "outbox")
+    public MeterBinder outboxMetrics(OutboxService outboxService, OutboxRepository outboxRepo) {
+        return registry -> {
+            Gauge.builder("outbox.lag", outboxService, OutboxService::lagMs)
+                    .description("Idade do evento pendente mais antigo")
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            Gauge.builder("outbox.events", outboxRepo, r -> r.countByStatus(OutboxEvent.Status.PENDING))
+                    .tag("status", "pending")
+                    .register(registry);
+            Gauge.builder("outbox.events", outboxRepo, r -> r.countByStatus(OutboxEvent.Status.FAILED))
+                    .tag("status", "failed")
+                    .register(registry);
+        };
+    }
+}
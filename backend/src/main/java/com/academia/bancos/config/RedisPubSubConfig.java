@@ -0,0 +1,39 @@
+package com.academia.bancos.config;
+
+import com.academia.bancos.service.CredentialCache;
+import com.academia.bancos.service.UserNearCache;
+import com.academia.bancos.service.UserVersions;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
+
+@Configuration
+@Profile("!loadtest")
+public class RedisPubSubConfig {
+
+    // Recebe as invalidações de cache publicadas por qualquer instância
+    @Bean
+    public RedisMessageListenerContainer redisListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                UserNearCache nearCache,
+                                                                CredentialCache credentialCache,
+                                                                UserVersions versions) {
+        ChannelTopic topic = new ChannelTopic(UserNearCache.CHANNEL);
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(listener(nearCache), topic);
+        container.addMessageListener(listener(credentialCache), topic);
+        container.addMessageListener(listener(versions), topic);
+        return container;
+    }
+
+    private MessageListenerAdapter listener(Object delegate) {
+        MessageListenerAdapter adapter = new MessageListenerAdapter(delegate, "onInvalidation");
+        adapter.afterPropertiesSet();
+        return adapter;
+    }
+}
@@ -0,0 +1,45 @@
+package com.academia.bancos.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool dedicado às chamadas de I/O contra os bancos (Postgres, Mongo, Redis, Neo4j).
+ * Limitado em threads e fila para não competir sem controle com o pool do Tomcat.
+ * Com spring.threads.virtual.enabled (perfil vthreads, JDK 21) o VirtualThreadConfig troca este pool
+ * por uma thread virtual por tarefa; o limite por banco passa a ser só o bulkhead do StoreGuard.
+ */
+@Configuration
+public class StoreExecutorConfig {
+
+    @Value("${app.store.executor.threads:16}")
+    private int threads;
+
+    @Value("${app.store.executor.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Bean(name = "storeExecutor", destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService storeExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "store-io-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        // Fila cheia -> recusa; o StoreGuard.submit devolve StoreUnavailableException e o chamador usa o
+        // fallback. Rodar na thread da requisição (CallerRunsPolicy) ignoraria o prazo de cada banco.
+        return new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), factory, new ThreadPoolExecutor.AbortPolicy());
+    }
+}
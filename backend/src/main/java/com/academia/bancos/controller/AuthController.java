@@ -1,9 +1,13 @@
 package com.academia.bancos.controller;
 
-import com.academia.bancos.model.entity.UserEntity;
-import com.academia.bancos.repository.UserRepositoryPG;
+import com.academia.bancos.metrics.StoreMetrics;
+import com.academia.bancos.resilience.StoreGuard;
+import com.academia.bancos.service.CredentialCache;
+import com.academia.bancos.service.RedisKeyspace;
 import com.academia.bancos.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,9 +22,11 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:4200")
 public class AuthController {
 
-    @Autowired private UserRepositoryPG userRepository;
+    @Autowired private CredentialCache credentialCache;
     @Autowired private UserService userService;
     @Autowired private StringRedisTemplate redisTemplate; // <--- Importante para salvar sessão
+    @Autowired private StoreMetrics storeMetrics;
+    @Autowired private StoreGuard storeGuard;
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest request) {
@@ -30,27 +36,38 @@ public class AuthController {
             return ResponseEntity.badRequest().body(Map.of("message", "Dados incompletos"));
         }
 
-        Optional<UserEntity> userOpt = userRepository.findByEmail(emailParaUsar);
+        // Credenciais vêm do cache (email com índice único no Postgres em caso de miss)
+        Optional<CredentialCache.Credentials> userOpt = credentialCache.findByEmail(emailParaUsar);
 
         if (userOpt.isPresent()) {
-            UserEntity user = userOpt.get();
-            if (user.getPasswordHash().equals(request.password)) {
+            CredentialCache.Credentials user = userOpt.get();
+            if (user.passwordHash().equals(request.password)) {
 
-                String userId = user.getUserId();
+                String userId = user.userId();
 
-                // === 1. REDIS: Incrementar Contador ===
+                // === 1. REDIS: Incrementar Contador (write-behind, sem round trip) ===
                 userService.incrementLoginCount(userId);
 
-                // === 2. REDIS: Salvar Status da Sessão ===
-                redisTemplate.opsForValue().set("session:" + userId, "ACTIVE");
-
-                // === 3. REDIS: Salvar Data do Login (Para os Logs) ===
-                redisTemplate.opsForValue().set("last_login:" + userId, LocalDateTime.now().toString());
+                // === 2. REDIS: Sessão + Data do Login num único MSET (+ registros do keyspace, mesmo pipeline) ===
+                // Sem Redis o login segue (degradado): só a sessão/último login não ficam registrados
+                storeGuard.call(StoreMetrics.REDIS, "multiSet", () -> {
+                    storeMetrics.run(StoreMetrics.REDIS, "multiSet", () -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                        StringRedisConnection conn = (StringRedisConnection) connection;
+                        conn.mSetString(Map.of(
+                                "session:" + userId, "ACTIVE",
+                                "last_login:" + userId, LocalDateTime.now().toString()
+                        ));
+                        conn.sAdd(RedisKeyspace.registryKey(RedisKeyspace.SESSION), userId);
+                        conn.sAdd(RedisKeyspace.registryKey(RedisKeyspace.LAST_LOGIN), userId);
+                        return null;
+                    }));
+                    return null;
+                }, () -> null);
 
                 Map<String, Object> response = new HashMap<>();
                 response.put("token", "fake-jwt-" + userId);
                 response.put("userId", userId);
-                response.put("email", user.getEmail());
+                response.put("email", user.email());
 
                 return ResponseEntity.ok(response);
             }
@@ -0,0 +1,35 @@
+package com.academia.bancos.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+// GET condicional (ETag / If-None-Match) e escolha JSON x CBOR das leituras em massa
+final class ConditionalGet {
+
+    static final String JSON = "json";
+    static final String CBOR = "cbor";
+
+    private ConditionalGet() {}
+
+    // CBOR só quando pedido sem JSON junto: o navegador (Accept com json ou */*) continua em JSON
+    static String format(String accept) {
+        if (accept == null) return JSON;
+        return accept.contains("application/cbor") && !accept.contains("application/json") ? CBOR : JSON;
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+
+    // etag null = resposta degradada (algum banco fora): sai sem validador para não ficar no cache do cliente
+    static ResponseEntity.BodyBuilder ok(String etag) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        return etag == null ? ok : ok.eTag(etag).cacheControl(CacheControl.noCache());
+    }
+}
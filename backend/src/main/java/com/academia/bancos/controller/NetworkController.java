@@ -1,11 +1,24 @@
 package com.academia.bancos.controller;
 
-import com.academia.bancos.model.node.UserNode;
+import com.academia.bancos.graph.GraphSnapshotService;
+import com.academia.bancos.metrics.StoreMetrics;
+import com.academia.bancos.repository.UserGraphQueries;
 import com.academia.bancos.repository.UserRepositoryNeo4j;
+import com.academia.bancos.resilience.StoreGuard;
+import com.academia.bancos.service.UserVersions;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.*;
 
 @RestController
@@ -16,41 +29,137 @@ public class NetworkController {
     @Autowired
     private UserRepositoryNeo4j neo4jRepo;
 
-    @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getNetwork(@PathVariable String id) {
+    @Autowired
+    private UserGraphQueries graphQueries;
 
-        // 1. BUSCA DIRETA
-        Optional<UserNode> userOpt = neo4jRepo.findById(id);
+    @Autowired
+    private ObjectMapper objectMapper;
 
-        // 2. SEGURANÇA: Se não achar o usuário no Neo4j (ex: acabou de criar),
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.ok(Map.of("nodes", List.of(), "links", List.of()));
-        }
+    @Autowired
+    private GraphSnapshotService graphSnapshot;
 
-        UserNode centralUser = userOpt.get();
+    @Autowired
+    private StoreGuard storeGuard;
 
-        List<Map<String, Object>> nodes = new ArrayList<>();
-        List<Map<String, Object>> links = new ArrayList<>();
+    @Autowired
+    private UserVersions versions;
 
-        // 3. Adiciona o usuário central (Eu)
-        nodes.add(Map.of("id", centralUser.getUserId(), "group", "me"));
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
 
-        // 4. Adiciona quem eu sigo (Amigos)
-        if (centralUser.getFollowing() != null) {
-            for (UserNode followed : centralUser.getFollowing()) {
-                nodes.add(Map.of("id", followed.getUserId(), "group", "friend"));
+    // Teto de caminhos retornados por consulta (o ?limit= do cliente não passa disso)
+    @Value("${app.network.max-limit:1000}")
+    private int maxLimit;
 
-                links.add(Map.of(
-                        "source", centralUser.getUserId(),
-                        "target", followed.getUserId()
-                ));
+    // GET /api/network/{id}?depth=1..3&limit= -> {nodes:[{id,group}], links:[{source,target}]}
+    // ETag pelo carimbo do grafo (muda a cada follow/unfollow/create/delete); Accept: application/cbor -> CBOR
+    @GetMapping("/{id}")
+    public ResponseEntity<StreamingResponseBody> getNetwork(@PathVariable String id,
+                                                            @RequestParam(defaultValue = "1") int depth,
+                                                            @RequestParam(defaultValue = "200") int limit,
+                                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        String format = ConditionalGet.format(accept);
+        String etag = versions.graphTag(format);
+        if (UserVersions.matches(ifNoneMatch, etag)) {
+            return ConditionalGet.notModified(etag);
+        }
+
+        // 1. PROJEÇÃO: só ids das arestas, sem carregar entidades.
+        //    Neo4j fora do prazo / breaker aberto -> mesma vizinhança a partir do snapshot em memória
+        int paths = Math.max(1, Math.min(limit, maxLimit));
+        List<UserGraphQueries.Edge> edges = storeGuard.read(StoreMetrics.NEO4J, "egoEdges",
+                () -> graphQueries.egoEdges(id, depth, paths), () -> graphSnapshot.egoEdges(id, depth, paths));
+
+        // 2. SEGURANÇA: Se não achar o usuário no Neo4j (ex: acabou de criar), grafo vazio
+        boolean exists = !edges.isEmpty() || storeGuard.read(StoreMetrics.NEO4J, "existsById",
+                () -> neo4jRepo.existsById(id), () -> graphSnapshot.contains(id));
+
+        // 3. Distância (em saltos) de cada nó até o usuário central, para o "group"
+        Map<String, Integer> hops = exists ? hopsFrom(id, edges) : Map.of();
+
+        // Mesmo writeGraph para os dois formatos: o gerador CBOR tem a mesma API do JSON
+        boolean cbor = ConditionalGet.CBOR.equals(format);
+        JsonFactory factory = cbor ? cborConverter.getObjectMapper().getFactory() : objectMapper.getFactory();
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = factory.createGenerator(out)) {
+                writeGraph(json, hops, edges);
             }
+        };
+        // Resposta vinda do snapshot (breaker do Neo4j aberto) não ganha ETag
+        return ConditionalGet.ok(storeGuard.isAvailable(StoreMetrics.NEO4J) ? etag : null)
+                .contentType(cbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // --- SNAPSHOT EM MEMÓRIA (CSR) ---
+    // Quem seguir: amigos de amigos ordenados por conexões em comum
+    @GetMapping("/{id}/recommendations")
+    public ResponseEntity<List<GraphSnapshotService.Recommendation>> getRecommendations(@PathVariable String id,
+                                                                                      @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(graphSnapshot.recommendations(id, Math.max(1, Math.min(limit, maxLimit))));
+    }
+
+    // Alcance em k saltos (quantos usuários novos por salto)
+    @GetMapping("/{id}/reach")
+    public ResponseEntity<GraphSnapshotService.Reach> getReach(@PathVariable String id,
+                                                               @RequestParam(defaultValue = "2") int k) {
+        return ResponseEntity.ok(graphSnapshot.reach(id, k));
+    }
+
+    @GetMapping("/snapshot/stats")
+    public ResponseEntity<Map<String, Object>> getSnapshotStats() {
+        return ResponseEntity.ok(graphSnapshot.stats());
+    }
+
+    // {nodes:[{id,group}], links:[{source,target}]} escrito direto no gerador, sem Map por nó/aresta
+    public static void writeGraph(JsonGenerator json, Map<String, Integer> hops, List<UserGraphQueries.Edge> edges) throws IOException {
+        json.writeStartObject();
+
+        json.writeArrayFieldStart("nodes");
+        for (Map.Entry<String, Integer> node : hops.entrySet()) {
+            json.writeStartObject();
+            json.writeStringField("id", node.getKey());
+            json.writeStringField("group", group(node.getValue()));
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+
+        json.writeArrayFieldStart("links");
+        for (UserGraphQueries.Edge edge : edges) {
+            json.writeStartObject();
+            json.writeStringField("source", edge.source());
+            json.writeStringField("target", edge.target());
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+
+        json.writeEndObject();
+    }
+
+    // BFS sobre as arestas já retornadas (ordem de inserção = ordem de descoberta)
+    public static Map<String, Integer> hopsFrom(String root, List<UserGraphQueries.Edge> edges) {
+        Map<String, List<String>> out = new HashMap<>();
+        for (UserGraphQueries.Edge e : edges) {
+            out.computeIfAbsent(e.source(), k -> new ArrayList<>()).add(e.target());
         }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("nodes", nodes);
-        response.put("links", links);
+        Map<String, Integer> hops = new LinkedHashMap<>();
+        hops.put(root, 0);
+        Deque<String> queue = new ArrayDeque<>(List.of(root));
+        while (!queue.isEmpty()) {
+            String current = queue.poll();
+            for (String next : out.getOrDefault(current, List.of())) {
+                if (hops.putIfAbsent(next, hops.get(current) + 1) == null) queue.add(next);
+            }
+        }
+        return hops;
+    }
 
-        return ResponseEntity.ok(response);
+    private static String group(int hop) {
+        if (hop == 0) return "me";
+        if (hop == 1) return "friend";
+        return "hop" + hop;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package com.academia.bancos.controller;
+
+import com.academia.bancos.service.OutboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/outbox")
+@CrossOrigin(origins = "http://localhost:4200")
+public class OutboxController {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    // Pendentes, falhos e lag (ms) do evento pendente mais antigo
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> stats() {
+        return ResponseEntity.ok(outboxService.stats());
+    }
+}
@@ -0,0 +1,51 @@
+package com.academia.bancos.controller;
+
+import com.academia.bancos.seed.BulkUserLoader;
+import com.academia.bancos.service.ProfileStatsService;
+import com.academia.bancos.service.UserVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@Profile("!loadtest")
+@RequestMapping("/api/seed")
+@CrossOrigin(origins = "http://localhost:4200")
+public class SeedController {
+
+    @Autowired
+    private BulkUserLoader bulkLoader;
+
+    @Autowired
+    private ProfileStatsService profileStats;
+
+    @Autowired
+    private UserVersions versions;
+
+    // Carga sob demanda (upsert): POST /api/seed/users?limit=100000
+    @PostMapping("/users")
+    public ResponseEntity<Map<String, Object>> loadUsers(@RequestParam(defaultValue = "2147483647") int limit) {
+        try (InputStream in = new ClassPathResource("netflix_userbase.json").getInputStream()) {
+            BulkUserLoader.LoadReport report = bulkLoader.load(in, limit, null);
+            // O upsert em lote não passa pelos contadores materializados
+            profileStats.rebuild();
+            versions.announce(null);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("parsed", report.parsed());
+            response.put("written", report.written());
+            response.put("elapsedMs", report.elapsedMs());
+            response.put("usersPerSecond", report.usersPerSecond());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.academia.bancos.controller;
+
+import com.academia.bancos.resilience.StoreUnavailableException;
+import com.academia.bancos.service.ProfileStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "http://localhost:4200")
+public class StatsController {
+
+    @Autowired
+    private ProfileStatsService profileStats;
+
+    // Distribuição por país, gênero e faixa etária a partir dos contadores materializados
+    @GetMapping("/profiles")
+    public ResponseEntity<Map<String, Object>> profiles() {
+        try {
+            return ResponseEntity.ok(profileStats.profiles());
+        } catch (StoreUnavailableException e) {
+            return StoreUnavailableAdvice.unavailable(e, null);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Mesmo resultado calculado na hora pelo pipeline de agregação (varre user_profiles)
+    @GetMapping("/profiles/aggregate")
+    public ResponseEntity<Map<String, Object>> aggregate() {
+        try {
+            return ResponseEntity.ok(profileStats.aggregate());
+        } catch (StoreUnavailableException e) {
+            return StoreUnavailableAdvice.unavailable(e, null);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Recontagem sob demanda (ex.: depois de uma carga em lote)
+    @PostMapping("/profiles/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        try {
+            return ResponseEntity.ok(Map.of("counters", profileStats.rebuild()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.academia.bancos.controller;
+
+import com.academia.bancos.resilience.ConcurrencyLimitFilter;
+import com.academia.bancos.resilience.StoreGuard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stores")
+@CrossOrigin(origins = "http://localhost:4200")
+public class StoreStatusController {
+
+    @Autowired
+    private StoreGuard storeGuard;
+
+    @Autowired
+    private ConcurrencyLimitFilter limitFilter;
+
+    // Estado do circuit breaker, vagas do bulkhead em uso e prazo de cada banco
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(storeGuard.status());
+    }
+
+    // Limite adaptativo atual, requisições em andamento e latências de referência por grupo de rotas
+    @GetMapping("/limiter")
+    public ResponseEntity<Map<String, Object>> limiter() {
+        return ResponseEntity.ok(limitFilter.status());
+    }
+}
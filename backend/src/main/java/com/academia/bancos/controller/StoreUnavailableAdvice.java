@@ -0,0 +1,28 @@
+package com.academia.bancos.controller;
+
+import com.academia.bancos.resilience.StoreUnavailableException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+// Banco recusado pelo StoreGuard (breaker aberto / bulkhead cheio) -> 503 + Retry-After
+@RestControllerAdvice
+public class StoreUnavailableAdvice {
+
+    @ExceptionHandler(StoreUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handle(StoreUnavailableException e) {
+        return unavailable(e, Map.of("message", e.getMessage(), "store", e.getStore()));
+    }
+
+    // Para os controllers que já tratam as próprias exceções
+    static <T> ResponseEntity<T> unavailable(StoreUnavailableException e, T body) {
+        long seconds = Math.max(1, (e.getRetryAfterMs() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(body);
+    }
+}
@@ -1,14 +1,30 @@
 package com.academia.bancos.controller;
 
+import com.academia.bancos.metrics.StoreMetrics;
 import com.academia.bancos.model.dto.UserDTO;
+import com.academia.bancos.model.dto.UserPageDTO;
+import com.academia.bancos.repository.UserProfileQueries;
+import com.academia.bancos.resilience.StoreGuard;
+import com.academia.bancos.resilience.StoreUnavailableException;
+import com.academia.bancos.service.UserNearCache;
 import com.academia.bancos.service.UserService;
+import com.academia.bancos.service.UserVersions;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map; // <--- Importante estar aqui
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/users")
@@ -18,36 +34,178 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserNearCache nearCache;
+
+    @Autowired
+    private UserVersions versions;
+
+    @Autowired
+    private StoreGuard storeGuard;
+
+    private static final List<String> ALL_STORES =
+            List.of(StoreMetrics.POSTGRES, StoreMetrics.MONGO, StoreMetrics.REDIS, StoreMetrics.NEO4J);
+
     // --- CREATE ---
     @PostMapping
     public ResponseEntity<UserDTO> create(@RequestBody UserDTO user) {
         try {
             UserDTO created = userService.createUser(user);
             return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (StoreUnavailableException e) {
+            return StoreUnavailableAdvice.unavailable(e, null);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
-    // --- READ ALL ---
+    // --- READ ALL (?source=postgres|mongo|redis|neo4j e/ou ?fields=userId,email,...) ---
+    // Com source/fields só os bancos desses campos são consultados e o JSON sai sem os demais
+    // ETag pelo carimbo da listagem: If-None-Match igual -> 304 sem consultar banco nenhum
     @GetMapping
-    public ResponseEntity<List<UserDTO>> listAll(@RequestParam(required = false) String source) {
+    public ResponseEntity<?> listAll(@RequestParam(required = false) String source,
+                                     @RequestParam(required = false) String fields,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        // Carimbo lido antes da consulta: escrita no meio só faz o próximo GET vir completo
+        String etag = versions.listTag(ConditionalGet.format(accept));
+        if (UserVersions.matches(ifNoneMatch, etag)) {
+            return ConditionalGet.notModified(etag);
+        }
+        try {
+            List<UserDTO> users = userService.getAllUsers(source, fields);
+            ResponseEntity.BodyBuilder ok = ConditionalGet.ok(allStoresUp() ? etag : null);
+            if (source == null && fields == null) {
+                return ok.body(users);
+            }
+            return ok.body(users.stream().map(this::sparse).toList());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (StoreUnavailableException e) {
+            return StoreUnavailableAdvice.unavailable(e, null);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // --- READ PAGINADO (keyset: ?after=<userId>&limit=) ---
+    @GetMapping(params = "limit")
+    public ResponseEntity<UserPageDTO> listPage(@RequestParam(required = false) String after,
+                                                @RequestParam int limit) {
+        try {
+            return ResponseEntity.ok(userService.getUsersPage(after, limit));
+        } catch (StoreUnavailableException e) {
+            return StoreUnavailableAdvice.unavailable(e, null);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // --- BUSCA (?country=&genre=&subscriptionType=&minAge=&maxAge=&limit=) ---
+    // Filtro no Mongo por índice; sem nenhum filtro -> 400 (para tudo use a paginação)
+    @GetMapping("/search")
+    public ResponseEntity<List<UserDTO>> search(@RequestParam(required = false) String country,
+                                                @RequestParam(required = false) String genre,
+                                                @RequestParam(required = false) String subscriptionType,
+                                                @RequestParam(required = false) Integer minAge,
+                                                @RequestParam(required = false) Integer maxAge,
+                                                @RequestParam(defaultValue = "50") int limit) {
+        try {
+            UserProfileQueries.Filter filter = new UserProfileQueries.Filter(country, genre, subscriptionType, minAge, maxAge);
+            return ResponseEntity.ok(userService.searchUsers(filter, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (StoreUnavailableException e) {
+            return StoreUnavailableAdvice.unavailable(e, null);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Só os userIds (projeção coberta pelo índice quando não há filtro de gênero)
+    @GetMapping("/search/ids")
+    public ResponseEntity<List<String>> searchIds(@RequestParam(required = false) String country,
+                                                  @RequestParam(required = false) String genre,
+                                                  @RequestParam(required = false) String subscriptionType,
+                                                  @RequestParam(required = false) Integer minAge,
+                                                  @RequestParam(required = false) Integer maxAge,
+                                                  @RequestParam(defaultValue = "50") int limit) {
         try {
-            return ResponseEntity.ok(userService.getAllUsers(source));
+            UserProfileQueries.Filter filter = new UserProfileQueries.Filter(country, genre, subscriptionType, minAge, maxAge);
+            return ResponseEntity.ok(userService.searchUserIds(filter, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (StoreUnavailableException e) {
+            return StoreUnavailableAdvice.unavailable(e, null);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    // Plano da mesma busca (?ids=true para a versão coberta): estágios, índice, collscan, covered
+    @GetMapping("/search/explain")
+    public ResponseEntity<Map<String, Object>> explainSearch(@RequestParam(required = false) String country,
+                                                             @RequestParam(required = false) String genre,
+                                                             @RequestParam(required = false) String subscriptionType,
+                                                             @RequestParam(required = false) Integer minAge,
+                                                             @RequestParam(required = false) Integer maxAge,
+                                                             @RequestParam(defaultValue = "50") int limit,
+                                                             @RequestParam(defaultValue = "false") boolean ids) {
+        try {
+            UserProfileQueries.Filter filter = new UserProfileQueries.Filter(country, genre, subscriptionType, minAge, maxAge);
+            return ResponseEntity.ok(userService.explainSearch(filter, limit, ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (StoreUnavailableException e) {
+            return StoreUnavailableAdvice.unavailable(e, null);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // --- STREAM NDJSON (um UserDTO por linha, escrito assim que montado) ---
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        StreamingResponseBody body = out -> userService.streamAllUsers(dto -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(dto));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    // --- ESTATÍSTICAS DO NEAR-CACHE ---
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        return ResponseEntity.ok(nearCache.stats());
+    }
+
     // --- READ POR ID ---
     @GetMapping("/{id}")
-    public ResponseEntity<UserDTO> getById(@PathVariable String id) {
+    public ResponseEntity<UserDTO> getById(@PathVariable String id,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String etag = versions.userTag(id, ConditionalGet.format(accept));
+        if (UserVersions.matches(ifNoneMatch, etag)) {
+            return ConditionalGet.notModified(etag);
+        }
         try {
             UserDTO user = userService.getUserAggregated(id);
             if (user == null || user.getUserId() == null) {
                 return ResponseEntity.notFound().build();
             }
-            return ResponseEntity.ok(user);
+            // Sem os quatro bancos (savedIn incompleto) a resposta não ganha ETag
+            boolean complete = user.getSavedIn() != null && user.getSavedIn().size() == ALL_STORES.size();
+            return ConditionalGet.ok(complete ? etag : null).body(user);
+        } catch (StoreUnavailableException e) {
+            return StoreUnavailableAdvice.unavailable(e, null);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -59,6 +217,8 @@ public class UserController {
         try {
             UserDTO updated = userService.updateUser(id, user);
             return ResponseEntity.ok(updated);
+        } catch (StoreUnavailableException e) {
+            return StoreUnavailableAdvice.unavailable(e, null);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -70,6 +230,8 @@ public class UserController {
         try {
             userService.deleteUser(id);
             return ResponseEntity.noContent().build();
+        } catch (StoreUnavailableException e) {
+            return StoreUnavailableAdvice.unavailable(e, null);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -81,18 +243,48 @@ public class UserController {
         try {
             userService.createFollowRelationship(followerId, followedId);
             return ResponseEntity.ok(Map.of("message", "Conexão criada com sucesso"));
+        } catch (StoreUnavailableException e) {
+            return StoreUnavailableAdvice.unavailable(e, null);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    // Follow em lote: corpo é um array JSON de userIds alvo
+    @PostMapping("/{id}/follow")
+    public ResponseEntity<Map<String, Object>> followMany(@PathVariable String id, @RequestBody List<String> targetIds) {
+        try {
+            long created = userService.createFollowRelationships(id, targetIds);
+            return ResponseEntity.ok(Map.of("message", "Conexões criadas com sucesso", "created", created));
+        } catch (StoreUnavailableException e) {
+            return StoreUnavailableAdvice.unavailable(e, null);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
     @DeleteMapping("/{followerId}/follow/{followedId}")
     public ResponseEntity<Map<String, String>> unfollow(@PathVariable String followerId, @PathVariable String followedId) {
         try {
             userService.removeFollowRelationship(followerId, followedId);
             return ResponseEntity.ok(Map.of("message", "Conexão removida com sucesso"));
+        } catch (StoreUnavailableException e) {
+            return StoreUnavailableAdvice.unavailable(e, null);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    // Sparse fieldset: só os campos preenchidos (os não pedidos vêm null do service)
+    private Map<String, Object> sparse(UserDTO dto) {
+        Map<String, Object> fields = objectMapper.convertValue(dto, new TypeReference<LinkedHashMap<String, Object>>() {});
+        fields.values().removeIf(Objects::isNull);
+        return fields;
+    }
+
+    // Breaker aberto em algum banco = listagem possivelmente degradada (join sem email/contador).
+    // Prazo estourado com o breaker fechado não aparece aqui; o próximo write renova o ETag de qualquer forma.
+    private boolean allStoresUp() {
+        return ALL_STORES.stream().allMatch(storeGuard::isAvailable);
+    }
+}
@@ -0,0 +1,79 @@
+package com.academia.bancos.graph;
+
+import java.util.Arrays;
+
+/**
+ * Grafo dirigido imutável em formato CSR (Compressed Sparse Row) com ids inteiros 0..n-1.
+ * Os vizinhos de v são targets[offsets[v] .. offsets[v+1]), ordenados e sem repetição.
+ *
+ * Memória: 4 bytes por aresta (targets) + 4 bytes por nó (offsets), sem objetos por aresta.
+ */
+public final class CsrGraph {
+
+    private final int[] offsets;
+    private final int[] targets;
+
+    private CsrGraph(int[] offsets, int[] targets) {
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    public static CsrGraph empty() {
+        return new CsrGraph(new int[]{0}, new int[0]);
+    }
+
+    // Monta a partir de listas paralelas src/dst (m arestas) via counting sort por origem
+    public static CsrGraph build(int nodeCount, int[] src, int[] dst, int m) {
+        int[] offsets = new int[nodeCount + 1];
+        for (int i = 0; i < m; i++) offsets[src[i] + 1]++;
+        for (int v = 0; v < nodeCount; v++) offsets[v + 1] += offsets[v];
+
+        int[] cursor = Arrays.copyOf(offsets, nodeCount);
+        int[] targets = new int[m];
+        for (int i = 0; i < m; i++) targets[cursor[src[i]]++] = dst[i];
+
+        // Ordena cada linha e remove arestas duplicadas, compactando no lugar
+        int write = 0;
+        int[] compacted = new int[nodeCount + 1];
+        for (int v = 0; v < nodeCount; v++) {
+            int from = offsets[v], to = offsets[v + 1];
+            Arrays.sort(targets, from, to);
+            compacted[v] = write;
+            for (int i = from; i < to; i++) {
+                if (i > from && targets[i] == targets[i - 1]) continue;
+                targets[write++] = targets[i];
+            }
+        }
+        compacted[nodeCount] = write;
+        return new CsrGraph(compacted, write == m ? targets : Arrays.copyOf(targets, write));
+    }
+
+    public int nodeCount() {
+        return offsets.length - 1;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    public int degree(int v) {
+        return v < nodeCount() ? offsets[v + 1] - offsets[v] : 0;
+    }
+
+    public int rowStart(int v) {
+        return v < nodeCount() ? offsets[v] : 0;
+    }
+
+    public int target(int i) {
+        return targets[i];
+    }
+
+    public boolean hasEdge(int u, int v) {
+        if (u >= nodeCount()) return false;
+        return Arrays.binarySearch(targets, offsets[u], offsets[u + 1], v) >= 0;
+    }
+
+    public long sizeInBytes() {
+        return 4L * offsets.length + 4L * targets.length;
+    }
+}
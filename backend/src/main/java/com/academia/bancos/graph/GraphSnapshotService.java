@@ -0,0 +1,391 @@
+package com.academia.bancos.graph;
+
+import com.academia.bancos.metrics.StoreMetrics;
+import com.academia.bancos.repository.UserGraphQueries;
+import com.academia.bancos.resilience.StoreGuard;
+import com.academia.bancos.resilience.StoreUnavailableException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Snapshot em memória das arestas FOLLOWS para consultas que seriam caras no Neo4j a cada
+ * dashboard (recomendações "quem seguir" e alcance em k saltos).
+ *
+ * Estrutura: CsrGraph (int[] offsets + int[] targets) + dicionário userId <-> int.
+ * Follow/unfollow do UserService entram como deltas (added/removed) sobre o CSR; quando os deltas
+ * passam de app.graph.snapshot.compact-threshold, o CSR é recompactado em memória. Um rebuild
+ * completo a partir do Neo4j roda periodicamente (também cobre escritas de outras instâncias).
+ *
+ * Carga inicial: em background, logo depois do startup (app.graph.snapshot.initial-delay-ms) e de novo a
+ * cada retry-interval-ms até dar certo, se o seed não tiver carregado antes. Até lá as consultas
+ * recusam na hora (503 + Retry-After) em vez de ler o grafo inteiro na thread da requisição.
+ *
+ * Memória por aresta no CSR: 4 bytes (um int em targets). Por nó: 4 bytes de offset + a String
+ * do userId e a entrada do HashMap do dicionário (~100 bytes para ids como "user_000123").
+ * Deltas ainda não compactados custam ~40-60 bytes por aresta (Integer/Long em coleções).
+ */
+@Component
+public class GraphSnapshotService {
+
+    public record Recommendation(String userId, int mutual) {}
+
+    public record Reach(int hops, int[] perHop, int total) {}
+
+    @Autowired private UserGraphQueries graphQueries;
+    @Autowired private StoreGuard storeGuard;
+
+    @Value("${app.graph.snapshot.compact-threshold:10000}") private int compactThreshold;
+    @Value("${app.graph.snapshot.max-hops:4}") private int maxHops;
+    @Value("${app.graph.snapshot.retry-interval-ms:30000}") private long retryIntervalMs;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Um rebuild por vez (lock e não synchronized: a leitura do Neo4j dentro dele prenderia a carrier
+    // de uma thread virtual)
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // ---- Estado protegido pelo lock ----
+    private Map<String, Integer> index = new HashMap<>();
+    private List<String> names = new ArrayList<>();
+    private CsrGraph base = CsrGraph.empty();
+    private final Map<Integer, Set<Integer>> added = new HashMap<>();
+    private final Set<Long> removed = new HashSet<>();
+    private final BitSet deleted = new BitSet();
+    private int deltaCount;
+    // Deltas recebidos durante um rebuild, reaplicados no snapshot novo (null = sem rebuild)
+    private List<Runnable> replay;
+
+    private volatile boolean loaded;
+
+    // ================= CARGA =================
+
+    @Scheduled(fixedDelayString = "${app.graph.snapshot.rebuild-interval-ms:600000}",
+               initialDelayString = "${app.graph.snapshot.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                replay = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Map<String, Integer> newIndex = new HashMap<>();
+            List<String> newNames = new ArrayList<>();
+            IntBuffer src = new IntBuffer();
+            IntBuffer dst = new IntBuffer();
+            try {
+                graphQueries.forEachUserId(id -> intern(newIndex, newNames, id));
+                graphQueries.forEachEdge((s, t) -> {
+                    src.add(intern(newIndex, newNames, s));
+                    dst.add(intern(newIndex, newNames, t));
+                });
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    replay = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            CsrGraph graph = CsrGraph.build(newNames.size(), src.data, dst.data, src.size);
+
+            lock.writeLock().lock();
+            try {
+                index = newIndex;
+                names = newNames;
+                base = graph;
+                added.clear();
+                removed.clear();
+                deleted.clear();
+                deltaCount = 0;
+                List<Runnable> pending = replay;
+                replay = null;
+                pending.forEach(Runnable::run);
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            System.out.println("🧠 Snapshot do grafo: " + graph.nodeCount() + " nós, " + graph.edgeCount()
+                    + " arestas, " + graph.sizeInBytes() + " bytes CSR em " + (System.currentTimeMillis() - start) + " ms");
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.graph.snapshot.initial-delay-ms:5000}",
+               fixedDelayString = "${app.graph.snapshot.retry-interval-ms:30000}")
+    public void loadIfMissing() {
+        // Breaker do Neo4j aberto: nem tenta, a próxima rodada tenta de novo
+        if (loaded || !storeGuard.isAvailable(StoreMetrics.NEO4J)) return;
+        rebuildLock.lock();
+        try {
+            // O seed pode ter carregado enquanto esta rodada esperava o lock
+            if (!loaded) rebuild();
+        } catch (RuntimeException e) {
+            System.err.println("❌ Carga inicial do snapshot do grafo falhou (nova tentativa em "
+                    + retryIntervalMs + " ms): " + e.getMessage());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            throw new StoreUnavailableException(StoreMetrics.NEO4J, "snapshot do grafo ainda carregando", retryIntervalMs);
+        }
+    }
+
+    // ================= DELTAS (chamados pelo UserService) =================
+
+    public void addEdge(String followerId, String followedId) {
+        lock.writeLock().lock();
+        try {
+            if (replay != null) replay.add(() -> addEdge(followerId, followedId));
+            int u = intern(index, names, followerId);
+            int v = intern(index, names, followedId);
+            if (base.hasEdge(u, v)) {
+                removed.remove(key(u, v));
+            } else {
+                added.computeIfAbsent(u, k -> new HashSet<>()).add(v);
+            }
+            afterDelta();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeEdge(String followerId, String followedId) {
+        lock.writeLock().lock();
+        try {
+            if (replay != null) replay.add(() -> removeEdge(followerId, followedId));
+            Integer u = index.get(followerId);
+            Integer v = index.get(followedId);
+            if (u == null || v == null) return;
+            Set<Integer> extra = added.get(u);
+            if (extra != null && extra.remove(v)) {
+                if (extra.isEmpty()) added.remove(u);
+            } else if (base.hasEdge(u, v)) {
+                removed.add(key(u, v));
+            }
+            afterDelta();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // O int do usuário vira lápide; se o userId for recriado, ganha um int novo
+    public void removeNode(String userId) {
+        lock.writeLock().lock();
+        try {
+            if (replay != null) replay.add(() -> removeNode(userId));
+            Integer u = index.remove(userId);
+            if (u == null) return;
+            deleted.set(u);
+            added.remove(u);
+            afterDelta();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void afterDelta() {
+        if (++deltaCount >= compactThreshold) compact();
+    }
+
+    // Recria o CSR a partir da visão atual (base + deltas), sem ir ao Neo4j
+    private void compact() {
+        IntBuffer src = new IntBuffer();
+        IntBuffer dst = new IntBuffer();
+        for (int u = 0; u < names.size(); u++) {
+            final int from = u;
+            forEachNeighbour(u, v -> {
+                src.add(from);
+                dst.add(v);
+            });
+        }
+        base = CsrGraph.build(names.size(), src.data, dst.data, src.size);
+        added.clear();
+        removed.clear();
+        deltaCount = 0;
+    }
+
+    // ================= CONSULTAS =================
+
+    // Amigos de amigos que o usuário ainda não segue, ordenados pela quantidade de conexões em comum
+    public List<Recommendation> recommendations(String userId, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Integer u = index.get(userId);
+            if (u == null) return List.of();
+
+            Set<Integer> direct = new HashSet<>();
+            forEachNeighbour(u, direct::add);
+
+            Map<Integer, Integer> score = new HashMap<>();
+            for (int v : direct) {
+                forEachNeighbour(v, w -> {
+                    if (w != u && !direct.contains(w)) score.merge(w, 1, Integer::sum);
+                });
+            }
+
+            return score.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                            .thenComparing(e -> names.get(e.getKey())))
+                    .limit(limit)
+                    .map(e -> new Recommendation(names.get(e.getKey()), e.getValue()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Quantos usuários novos são alcançados a cada salto (BFS), até k saltos
+    public Reach reach(String userId, int k) {
+        ensureLoaded();
+        int hops = Math.max(1, Math.min(k, maxHops));
+        lock.readLock().lock();
+        try {
+            Integer u = index.get(userId);
+            int[] perHop = new int[hops];
+            if (u == null) return new Reach(hops, perHop, 0);
+
+            BitSet visited = new BitSet(names.size());
+            visited.set(u);
+            IntBuffer frontier = new IntBuffer();
+            frontier.add(u);
+            int total = 0;
+
+            for (int h = 0; h < hops && frontier.size > 0; h++) {
+                IntBuffer next = new IntBuffer();
+                for (int i = 0; i < frontier.size; i++) {
+                    forEachNeighbour(frontier.data[i], w -> {
+                        if (!visited.get(w)) {
+                            visited.set(w);
+                            next.add(w);
+                        }
+                    });
+                }
+                perHop[h] = next.size;
+                total += next.size;
+                frontier = next;
+            }
+            return new Reach(hops, perHop, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ego-network a partir do snapshot (fallback do /api/network quando o Neo4j está fora):
+    // arestas descobertas por BFS em até "depth" saltos, no máximo "limit" arestas
+    public List<UserGraphQueries.Edge> egoEdges(String userId, int depth, int limit) {
+        int hops = Math.max(1, Math.min(depth, UserGraphQueries.MAX_DEPTH));
+        lock.readLock().lock();
+        try {
+            Integer u = index.get(userId);
+            List<UserGraphQueries.Edge> edges = new ArrayList<>();
+            if (u == null || deleted.get(u)) return edges;
+
+            BitSet visited = new BitSet(names.size());
+            visited.set(u);
+            IntBuffer frontier = new IntBuffer();
+            frontier.add(u);
+            for (int h = 0; h < hops && frontier.size > 0 && edges.size() < limit; h++) {
+                IntBuffer next = new IntBuffer();
+                for (int i = 0; i < frontier.size && edges.size() < limit; i++) {
+                    int from = frontier.data[i];
+                    forEachNeighbour(from, w -> {
+                        if (edges.size() >= limit) return;
+                        edges.add(new UserGraphQueries.Edge(names.get(from), names.get(w)));
+                        if (!visited.get(w)) {
+                            visited.set(w);
+                            next.add(w);
+                        }
+                    });
+                }
+                frontier = next;
+            }
+            return edges;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String userId) {
+        lock.readLock().lock();
+        try {
+            return index.containsKey(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("loaded", loaded);
+            stats.put("nodes", index.size());
+            stats.put("csrEdges", base.edgeCount());
+            stats.put("csrBytes", base.sizeInBytes());
+            stats.put("pendingDeltas", deltaCount);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ================= INTERNOS =================
+
+    private void forEachNeighbour(int u, IntConsumer action) {
+        if (deleted.get(u)) return;
+        int start = base.rowStart(u);
+        int degree = base.degree(u);
+        boolean checkRemoved = !removed.isEmpty();
+        for (int i = 0; i < degree; i++) {
+            int v = base.target(start + i);
+            if (deleted.get(v) || (checkRemoved && removed.contains(key(u, v)))) continue;
+            action.accept(v);
+        }
+        Set<Integer> extra = added.get(u);
+        if (extra != null) {
+            for (int v : extra) {
+                if (!deleted.get(v)) action.accept(v);
+            }
+        }
+    }
+
+    private static int intern(Map<String, Integer> index, List<String> names, String userId) {
+        Integer id = index.get(userId);
+        if (id != null) return id;
+        int next = names.size();
+        index.put(userId, next);
+        names.add(userId);
+        return next;
+    }
+
+    private static long key(int u, int v) {
+        return ((long) u << 32) | (v & 0xffffffffL);
+    }
+
+    // Lista de int sem boxing
+    private static final class IntBuffer {
+        int[] data = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+    }
+}
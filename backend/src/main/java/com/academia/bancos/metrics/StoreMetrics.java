@@ -0,0 +1,55 @@
+package com.academia.bancos.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timer "store.calls" (com histograma de percentis) para chamadas aos bancos,
+ * tags: store (postgres|mongo|redis|neo4j), operation e outcome (success|error).
+ */
+@Component
+public class StoreMetrics {
+
+    public static final String METRIC = "store.calls";
+
+    public static final String POSTGRES = "postgres";
+    public static final String MONGO = "mongo";
+    public static final String REDIS = "redis";
+    public static final String NEO4J = "neo4j";
+
+    @Autowired private MeterRegistry registry;
+
+    public <T> T record(String store, String operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            timer(store, operation, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void run(String store, String operation, Runnable call) {
+        record(store, operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    Timer timer(String store, String operation, String outcome) {
+        return Timer.builder(METRIC)
+                .tag("store", store)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
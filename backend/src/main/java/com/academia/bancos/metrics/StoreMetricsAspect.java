@@ -0,0 +1,65 @@
+package com.academia.bancos.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.neo4j.repository.Neo4jRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede todas as chamadas aos repositórios Spring Data (Postgres, Mongo, Neo4j), às consultas
+ * Cypher do UserGraphQueries, às consultas do Mongo (UserProfileQueries, ProfileStatsQueries) e ao
+ * RedisKeyspace, sem precisar instrumentar cada ponto de chamada. Chamadas diretas aos templates
+ * (seed, outbox, pub/sub) usam StoreMetrics.record/run.
+ */
+@Aspect
+@Component
+public class StoreMetricsAspect {
+
+    @Autowired private StoreMetrics metrics;
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object repository(ProceedingJoinPoint jp) throws Throwable {
+        Object target = jp.getTarget();
+        String store = target instanceof JpaRepository ? StoreMetrics.POSTGRES
+                : target instanceof MongoRepository ? StoreMetrics.MONGO
+                : target instanceof Neo4jRepository ? StoreMetrics.NEO4J
+                : "other";
+        return time(jp, store);
+    }
+
+    @Around("execution(public * com.academia.bancos.repository.UserGraphQueries+.*(..))")
+    public Object graphQueries(ProceedingJoinPoint jp) throws Throwable {
+        return time(jp, StoreMetrics.NEO4J);
+    }
+
+    @Around("execution(public * com.academia.bancos.repository.UserProfileQueries+.*(..)) || " +
+            "execution(public * com.academia.bancos.repository.ProfileStatsQueries+.*(..))")
+    public Object mongoQueries(ProceedingJoinPoint jp) throws Throwable {
+        return time(jp, StoreMetrics.MONGO);
+    }
+
+    @Around("execution(public * com.academia.bancos.service.RedisKeyspace.*(..))")
+    public Object redisKeyspace(ProceedingJoinPoint jp) throws Throwable {
+        return time(jp, StoreMetrics.REDIS);
+    }
+
+    private Object time(ProceedingJoinPoint jp, String store) throws Throwable {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return jp.proceed();
+        } catch (Throwable t) {
+            outcome = "error";
+            throw t;
+        } finally {
+            metrics.timer(store, jp.getSignature().getName(), outcome)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -2,11 +2,22 @@ package com.academia.bancos.model.document;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import lombok.Data;
 import java.util.List;
 
+// Índices de GET /api/users/search (criados por spring.data.mongodb.auto-index-creation).
+// Igualdade -> range (age) -> _id: com _id no fim a busca só de ids é coberta pelo índice.
+// genres é array, então genres_age é multikey (serve o filtro, mas não cobre projeção).
 @Document(collection = "user_profiles")
+@CompoundIndexes({
+        @CompoundIndex(name = "country_age", def = "{'country': 1, 'age': 1, '_id': 1}"),
+        @CompoundIndex(name = "subscription_age", def = "{'subscriptionType': 1, 'age': 1, '_id': 1}"),
+        @CompoundIndex(name = "genres_age", def = "{'genres': 1, 'age': 1}"),
+        @CompoundIndex(name = "age", def = "{'age': 1, '_id': 1}")
+})
 @Data
 public class UserProfileDoc {
     @Id
@@ -18,4 +29,4 @@ public class UserProfileDoc {
 
     @Transient
     private String originDatabase = "MongoDB";
-}
\ No newline at end of file
+}
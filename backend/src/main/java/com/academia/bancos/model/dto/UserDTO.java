@@ -13,12 +13,15 @@ public class UserDTO {
     private Integer age;
     private String country;
     private List<String> genres;
+    private String subscriptionType;
 
     // Dados Redis
     private Integer loginCount;
 
     // Dados Neo4j
     private List<String> followingIds;
+    private Long followersCount;
+    private Long followingCount;
 
     // Metadados
     private List<String> savedIn; // Lista onde foi salvo: ["Postgres", "Mongo", etc]
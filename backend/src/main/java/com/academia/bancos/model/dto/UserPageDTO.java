@@ -0,0 +1,16 @@
+package com.academia.bancos.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageDTO {
+    private List<UserDTO> items;
+
+    // userId do último item; passar como ?after= para a próxima página (null = acabou)
+    private String nextCursor;
+}
@@ -0,0 +1,43 @@
+package com.academia.bancos.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+// Evento gravado na mesma transação do Postgres; os demais bancos são atualizados depois pelo OutboxApplier
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_pending", columnList = "status, availableAt"),
+        @Index(name = "idx_outbox_aggregate", columnList = "aggregateId, id")
+})
+@Data
+public class OutboxEvent {
+
+    public enum Type { USER_CREATED, USER_DELETED }
+
+    public enum Status { PENDING, DONE, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String aggregateId; // userId
+
+    @Enumerated(EnumType.STRING)
+    private Type type;
+
+    @Column(columnDefinition = "text")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.PENDING;
+
+    private int attempts;
+    private Instant createdAt;
+    private Instant availableAt; // próxima tentativa (backoff)
+    private Instant processedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+}
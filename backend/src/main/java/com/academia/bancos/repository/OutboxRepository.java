@@ -0,0 +1,27 @@
+package com.academia.bancos.repository;
+
+import com.academia.bancos.model.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // SKIP LOCKED: várias instâncias podem consumir o outbox sem pegar os mesmos eventos.
+    // NOT EXISTS: só o evento pendente mais antigo de cada usuário, para um delete nunca passar na frente
+    // do create do mesmo usuário (em backoff ou travado por outra instância)
+    @Query(value = "SELECT * FROM outbox_events e WHERE e.status = 'PENDING' AND e.available_at <= now() " +
+                   "AND NOT EXISTS (SELECT 1 FROM outbox_events e2 WHERE e2.aggregate_id = e.aggregate_id " +
+                   "AND e2.id < e.id AND e2.status = 'PENDING') " +
+                   "ORDER BY e.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(int limit);
+
+    long countByStatus(OutboxEvent.Status status);
+
+    Optional<OutboxEvent> findFirstByStatusOrderByIdAsc(OutboxEvent.Status status);
+
+}
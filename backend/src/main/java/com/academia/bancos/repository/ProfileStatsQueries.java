@@ -0,0 +1,45 @@
+package com.academia.bancos.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contadores materializados dos perfis, um por valor de cada dimensão ("country:Brazil" -> 42).
+ * Implementação: ProfileStatsQueriesMongo (no perfil loadtest, contadores em memória).
+ */
+public interface ProfileStatsQueries {
+
+    String COLLECTION = "profile_stats";
+
+    // Limites das faixas etárias ($bucket: cada faixa vai do limite até o próximo, exclusive)
+    int[] AGE_BOUNDARIES = {0, 18, 25, 35, 45, 55, 65, 150};
+
+    record Counter(String dimension, String value, long count) {
+        public String key() {
+            return dimension + ":" + value;
+        }
+    }
+
+    // Deltas por chave "dimensão:valor"
+    void increment(Map<String, Long> deltas);
+
+    List<Counter> counters();
+
+    // Recontagem completa a partir dos perfis
+    List<Counter> aggregate();
+
+    // Reescreve os contadores com a recontagem e apaga os que sumiram
+    long replaceAll(Collection<Counter> counters);
+
+    // Faixa etária pelo limite inferior devolvido pelo $bucket ("18" -> "18-24")
+    static String ageLabel(Integer age) {
+        if (age == null || age < AGE_BOUNDARIES[0] || age >= AGE_BOUNDARIES[AGE_BOUNDARIES.length - 1]) return "unknown";
+        for (int i = AGE_BOUNDARIES.length - 2; i >= 0; i--) {
+            if (age >= AGE_BOUNDARIES[i]) {
+                return i == AGE_BOUNDARIES.length - 2 ? AGE_BOUNDARIES[i] + "+" : AGE_BOUNDARIES[i] + "-" + (AGE_BOUNDARIES[i + 1] - 1);
+            }
+        }
+        return "unknown";
+    }
+}
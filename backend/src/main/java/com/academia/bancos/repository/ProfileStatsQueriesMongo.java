@@ -0,0 +1,104 @@
+package com.academia.bancos.repository;
+
+import com.academia.bancos.model.document.UserProfileDoc;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contadores materializados dos perfis na coleção "profile_stats", um documento por valor:
+ * {_id: "country:Brazil", dimension: "country", value: "Brazil", count: 42}.
+ * Escritas são $inc com upsert; a recontagem completa vem do pipeline de agregação sobre user_profiles.
+ */
+@Repository
+@Profile("!loadtest")
+public class ProfileStatsQueriesMongo implements ProfileStatsQueries {
+
+    @Autowired private MongoTemplate mongoTemplate;
+
+    // Deltas por chave "dimensão:valor", todos num único bulk
+    @Override
+    public void increment(Map<String, Long> deltas) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION);
+        deltas.forEach((key, delta) -> {
+            int sep = key.indexOf(':');
+            ops.upsert(Query.query(Criteria.where("_id").is(key)),
+                    new Update().inc("count", delta)
+                            .setOnInsert("dimension", key.substring(0, sep))
+                            .setOnInsert("value", key.substring(sep + 1)));
+        });
+        ops.execute();
+    }
+
+    // Coleção pequena (uma linha por país/gênero/faixa): leitura inteira
+    @Override
+    public List<Counter> counters() {
+        List<Counter> counters = new ArrayList<>();
+        for (Document d : mongoTemplate.findAll(Document.class, COLLECTION)) {
+            counters.add(new Counter(d.getString("dimension"), d.getString("value"), ((Number) d.get("count")).longValue()));
+        }
+        return counters;
+    }
+
+    // Recontagem a partir de user_profiles num único $facet: total, $group por país,
+    // $unwind + $group por gênero e $bucket por idade
+    @Override
+    public List<Counter> aggregate() {
+        Object[] boundaries = new Object[AGE_BOUNDARIES.length];
+        for (int i = 0; i < boundaries.length; i++) boundaries[i] = AGE_BOUNDARIES[i];
+
+        Aggregation pipeline = Aggregation.newAggregation(
+                Aggregation.facet(Aggregation.count().as("count")).as("total")
+                        .and(Aggregation.group("country").count().as("count")).as("country")
+                        .and(Aggregation.unwind("genres"), Aggregation.group("genres").count().as("count")).as("genre")
+                        .and(Aggregation.bucket("age").withBoundaries(boundaries).withDefaultBucket("unknown")
+                                .andOutputCount().as("count")).as("age"));
+
+        Document result = mongoTemplate.aggregate(pipeline, UserProfileDoc.class, Document.class).getUniqueMappedResult();
+        List<Counter> counters = new ArrayList<>();
+        if (result == null) return counters;
+        for (String dimension : List.of("total", "country", "genre", "age")) {
+            for (Document row : result.getList(dimension, Document.class, List.of())) {
+                String value = "total".equals(dimension) ? "all" : label(dimension, row.get("_id"));
+                counters.add(new Counter(dimension, value, ((Number) row.get("count")).longValue()));
+            }
+        }
+        return counters;
+    }
+
+    // Reescreve os contadores com a recontagem e apaga os que sumiram.
+    // Um $inc concorrente pode se perder no meio; a próxima recontagem corrige.
+    @Override
+    public long replaceAll(Collection<Counter> counters) {
+        List<String> keys = new ArrayList<>(counters.size());
+        if (!counters.isEmpty()) {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION);
+            for (Counter c : counters) {
+                keys.add(c.key());
+                ops.upsert(Query.query(Criteria.where("_id").is(c.key())),
+                        new Update().set("dimension", c.dimension()).set("value", c.value()).set("count", c.count()));
+            }
+            ops.execute();
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("_id").nin(keys)), COLLECTION);
+        return keys.size();
+    }
+
+    private static String label(String dimension, Object id) {
+        if (id == null) return "unknown";
+        if ("age".equals(dimension) && id instanceof Number n) return ProfileStatsQueries.ageLabel(n.intValue());
+        return id.toString();
+    }
+}
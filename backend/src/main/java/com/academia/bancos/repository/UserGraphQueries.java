@@ -0,0 +1,40 @@
+package com.academia.bancos.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Consultas de grafo que devolvem só ids (projeção), sem hidratar UserNode nem o "following".
+ * Implementação: UserGraphQueriesNeo4j (no perfil loadtest, o grafo em memória).
+ */
+public interface UserGraphQueries {
+
+    int MAX_DEPTH = 3;
+
+    record Edge(String source, String target) {}
+
+    record Degree(long followers, long following) {}
+
+    // Arestas alcançáveis a partir de userId em até "depth" saltos, no máximo "limit" caminhos
+    List<Edge> egoEdges(String userId, int depth, int limit);
+
+    // Leitura O(1) dos contadores denormalizados no nó
+    Optional<Degree> degree(String userId);
+
+    // Contadores de vários nós numa consulta (join em lote do GET /api/users); ids sem nó ficam de fora
+    Map<String, Degree> degrees(Collection<String> userIds);
+
+    // Reconciliação: recalcula os contadores de todos os nós a partir das arestas reais
+    long rebuildDegreeCounters();
+
+    // Varreduras completas em streaming (registro a registro) para o snapshot em memória
+    long forEachUserId(Consumer<String> consumer);
+
+    long forEachDegree(BiConsumer<String, Degree> consumer);
+
+    long forEachEdge(BiConsumer<String, String> consumer);
+}
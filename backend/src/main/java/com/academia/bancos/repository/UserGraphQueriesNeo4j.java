@@ -0,0 +1,124 @@
+package com.academia.bancos.repository;
+
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * UserGraphQueries sobre o Neo4jClient (Cypher) e o Driver (varreduras em streaming).
+ */
+@Repository
+@Profile("!loadtest")
+public class UserGraphQueriesNeo4j implements UserGraphQueries {
+
+    @Autowired private Neo4jClient neo4jClient;
+    @Autowired private Driver driver;
+
+    // Arestas alcançáveis a partir de userId em até "depth" saltos, no máximo "limit" caminhos.
+    // O tamanho do caminho variável não aceita parâmetro, por isso vai no texto (já limitado a 1..3).
+    @Override
+    public List<Edge> egoEdges(String userId, int depth, int limit) {
+        int hops = Math.max(1, Math.min(depth, MAX_DEPTH));
+        String cypher =
+                "MATCH (me:User {userId: $userId}) " +
+                "CALL { WITH me MATCH p = (me)-[:FOLLOWS*1.." + hops + "]->(:User) RETURN p LIMIT $limit } " +
+                "UNWIND relationships(p) AS r " +
+                "RETURN DISTINCT startNode(r).userId AS source, endNode(r).userId AS target";
+
+        Collection<Edge> edges = neo4jClient.query(cypher)
+                .bind(userId).to("userId")
+                .bind(limit).to("limit")
+                .fetchAs(Edge.class)
+                .mappedBy((types, record) -> new Edge(record.get("source").asString(), record.get("target").asString()))
+                .all();
+        return new ArrayList<>(edges);
+    }
+
+    // Leitura O(1) dos contadores denormalizados no nó
+    @Override
+    public Optional<Degree> degree(String userId) {
+        return neo4jClient.query(
+                        "MATCH (u:User {userId: $userId}) " +
+                        "RETURN coalesce(u.followersCount, 0) AS followers, coalesce(u.followingCount, 0) AS following")
+                .bind(userId).to("userId")
+                .fetchAs(Degree.class)
+                .mappedBy((types, record) -> new Degree(record.get("followers").asLong(), record.get("following").asLong()))
+                .one();
+    }
+
+    // Contadores de vários nós numa consulta (join em lote do GET /api/users); ids sem nó ficam de fora
+    @Override
+    public Map<String, Degree> degrees(Collection<String> userIds) {
+        Map<String, Degree> degrees = new HashMap<>();
+        neo4jClient.query(
+                        "UNWIND $ids AS id MATCH (u:User {userId: id}) " +
+                        "RETURN id, coalesce(u.followersCount, 0) AS followers, coalesce(u.followingCount, 0) AS following")
+                .bind(userIds).to("ids")
+                .fetch().all()
+                .forEach(row -> degrees.put((String) row.get("id"),
+                        new Degree(((Number) row.get("followers")).longValue(), ((Number) row.get("following")).longValue())));
+        return degrees;
+    }
+
+    // Reconciliação: recalcula os contadores de todos os nós a partir das arestas reais
+    @Override
+    public long rebuildDegreeCounters() {
+        return neo4jClient.query(
+                        "MATCH (u:User) " +
+                        "CALL { WITH u OPTIONAL MATCH (u)<-[r:FOLLOWS]-() RETURN count(r) AS followers } " +
+                        "CALL { WITH u OPTIONAL MATCH (u)-[r:FOLLOWS]->() RETURN count(r) AS following } " +
+                        "SET u.followersCount = followers, u.followingCount = following " +
+                        "RETURN count(u)")
+                .fetchAs(Long.class).one()
+                .orElse(0L);
+    }
+
+    // Varreduras completas em streaming (registro a registro) para o snapshot em memória
+    @Override
+    public long forEachUserId(Consumer<String> consumer) {
+        return stream("MATCH (u:User) RETURN u.userId AS id",
+                record -> consumer.accept(record.get("id").asString()));
+    }
+
+    @Override
+    public long forEachDegree(BiConsumer<String, Degree> consumer) {
+        return stream("MATCH (u:User) RETURN u.userId AS id, " +
+                        "coalesce(u.followersCount, 0) AS followers, coalesce(u.followingCount, 0) AS following",
+                record -> consumer.accept(record.get("id").asString(),
+                        new Degree(record.get("followers").asLong(), record.get("following").asLong())));
+    }
+
+    @Override
+    public long forEachEdge(BiConsumer<String, String> consumer) {
+        return stream("MATCH (a:User)-[:FOLLOWS]->(b:User) RETURN a.userId AS source, b.userId AS target",
+                record -> consumer.accept(record.get("source").asString(), record.get("target").asString()));
+    }
+
+    private long stream(String cypher, Consumer<Record> consumer) {
+        try (Session session = driver.session()) {
+            return session.executeRead(tx -> {
+                Result result = tx.run(cypher);
+                long count = 0;
+                while (result.hasNext()) {
+                    consumer.accept(result.next());
+                    count++;
+                }
+                return count;
+            });
+        }
+    }
+}
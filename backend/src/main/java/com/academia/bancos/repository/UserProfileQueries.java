@@ -0,0 +1,57 @@
+package com.academia.bancos.repository;
+
+import com.academia.bancos.model.document.UserProfileDoc;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Busca filtrada de perfis (country, genre, subscriptionType, faixa de idade).
+ * Sem filtro nenhum não há índice que sirva: quem chama recusa antes (listagem completa é o keyset).
+ * Implementação: UserProfileQueriesMongo (no perfil loadtest, filtro sobre o stand-in do Mongo).
+ */
+public interface UserProfileQueries {
+
+    record Filter(String country, String genre, String subscriptionType, Integer minAge, Integer maxAge) {
+
+        public boolean isEmpty() {
+            return country == null && genre == null && subscriptionType == null && minAge == null && maxAge == null;
+        }
+
+        // Igualdades antes do range (ordem dos campos nos índices compostos); chamar só se !isEmpty()
+        public Criteria toCriteria() {
+            Criteria c = null;
+            if (country != null) c = field(c, "country").is(country);
+            if (subscriptionType != null) c = field(c, "subscriptionType").is(subscriptionType);
+            if (genre != null) c = field(c, "genres").is(genre);
+            if (minAge != null || maxAge != null) {
+                c = field(c, "age");
+                if (minAge != null) c.gte(minAge);
+                if (maxAge != null) c.lte(maxAge);
+            }
+            return c;
+        }
+
+        private static Criteria field(Criteria chain, String key) {
+            return chain == null ? Criteria.where(key) : chain.and(key);
+        }
+
+        public boolean matches(UserProfileDoc doc) {
+            if (country != null && !country.equals(doc.getCountry())) return false;
+            if (subscriptionType != null && !subscriptionType.equals(doc.getSubscriptionType())) return false;
+            if (genre != null && (doc.getGenres() == null || !doc.getGenres().contains(genre))) return false;
+            if (minAge != null && (doc.getAge() == null || doc.getAge() < minAge)) return false;
+            return maxAge == null || (doc.getAge() != null && doc.getAge() <= maxAge);
+        }
+    }
+
+    // Perfis que batem com o filtro, só os campos que o DTO usa
+    List<UserProfileDoc> search(Filter filter, int limit);
+
+    // Só os userIds (projeção coberta pelo índice quando o filtro não usa gênero)
+    List<String> searchIds(Filter filter, int limit);
+
+    // Plano de execução da mesma consulta: stages, indexes, collscan, covered
+    Map<String, Object> explain(Filter filter, int limit, boolean idsOnly);
+}
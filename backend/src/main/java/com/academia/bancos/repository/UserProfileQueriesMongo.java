@@ -0,0 +1,99 @@
+package com.academia.bancos.repository;
+
+import com.academia.bancos.model.document.UserProfileDoc;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Busca filtrada em user_profiles apoiada nos índices declarados em UserProfileDoc.
+ */
+@Repository
+@Profile("!loadtest")
+public class UserProfileQueriesMongo implements UserProfileQueries {
+
+    @Autowired private MongoTemplate mongoTemplate;
+
+    // Perfis que batem com o filtro, só os campos que o DTO usa
+    @Override
+    public List<UserProfileDoc> search(Filter filter, int limit) {
+        return mongoTemplate.find(query(filter, limit, false), UserProfileDoc.class);
+    }
+
+    // Só os userIds: projeção coberta pelos índices que terminam em _id (sem FETCH).
+    // Com gênero não há cobertura: índice multikey não cobre projeção.
+    @Override
+    public List<String> searchIds(Filter filter, int limit) {
+        List<String> ids = new ArrayList<>();
+        for (Document d : mongoTemplate.find(query(filter, limit, true), Document.class, collection())) {
+            ids.add(d.getString("_id"));
+        }
+        return ids;
+    }
+
+    // explain (executionStats) da mesma consulta: estágios do plano vencedor, índice usado e custo
+    @Override
+    public Map<String, Object> explain(Filter filter, int limit, boolean idsOnly) {
+        Query query = query(filter, limit, idsOnly);
+        Document find = new Document("find", collection())
+                .append("filter", query.getQueryObject())
+                .append("projection", query.getFieldsObject())
+                .append("limit", limit);
+        Document result = mongoTemplate.getDb().runCommand(
+                new Document("explain", find).append("verbosity", "executionStats"));
+
+        Document winning = result.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+        // Mongo 7+ (SBE) embrulha o plano em queryPlan
+        if (winning.containsKey("queryPlan")) winning = winning.get("queryPlan", Document.class);
+        List<String> stages = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        collectStages(winning, stages, indexes);
+
+        Document stats = result.get("executionStats", Document.class);
+        Map<String, Object> plan = new LinkedHashMap<>();
+        plan.put("stages", stages);
+        plan.put("indexes", indexes);
+        plan.put("collscan", stages.contains("COLLSCAN"));
+        plan.put("covered", !stages.contains("COLLSCAN") && !stages.contains("FETCH"));
+        plan.put("nReturned", stats.get("nReturned"));
+        plan.put("keysExamined", stats.get("totalKeysExamined"));
+        plan.put("docsExamined", stats.get("totalDocsExamined"));
+        plan.put("millis", stats.get("executionTimeMillis"));
+        return plan;
+    }
+
+    // ================= INTERNOS =================
+
+    private Query query(Filter filter, int limit, boolean idsOnly) {
+        Query query = new Query(filter.toCriteria()).limit(limit);
+        if (idsOnly) {
+            query.fields().include("_id");
+        } else {
+            query.fields().include("_id", "age", "country", "genres", "subscriptionType");
+        }
+        return query;
+    }
+
+    private String collection() {
+        return mongoTemplate.getCollectionName(UserProfileDoc.class);
+    }
+
+    // Plano é uma árvore: inputStage (um filho) ou inputStages (OR, vários)
+    @SuppressWarnings("unchecked")
+    private static void collectStages(Document stage, List<String> stages, List<String> indexes) {
+        stages.add(stage.getString("stage"));
+        if (stage.containsKey("indexName")) indexes.add(stage.getString("indexName"));
+        if (stage.containsKey("inputStage")) collectStages(stage.get("inputStage", Document.class), stages, indexes);
+        if (stage.containsKey("inputStages")) {
+            for (Document child : (List<Document>) stage.get("inputStages")) collectStages(child, stages, indexes);
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package com.academia.bancos.repository;
 
 import com.academia.bancos.model.document.UserProfileDoc;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface UserRepositoryMongo extends MongoRepository<UserProfileDoc, String> {}
\ No newline at end of file
+public interface UserRepositoryMongo extends MongoRepository<UserProfileDoc, String> {
+
+    // Keyset: range no _id (userId > after), ordenação e limite vêm do Pageable
+    List<UserProfileDoc> findByUserIdGreaterThan(String after, Pageable pageable);
+}
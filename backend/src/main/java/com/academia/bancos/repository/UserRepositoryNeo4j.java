@@ -5,9 +5,44 @@ import org.springframework.data.neo4j.repository.Neo4jRepository;
 import org.springframework.data.neo4j.repository.query.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface UserRepositoryNeo4j extends Neo4jRepository<UserNode, String> {
 
-    @Query("MATCH (a:User {userId: $followerId})-[r:FOLLOWS]->(b:User {userId: $followedId}) DELETE r")
+    // Os contadores followersCount/followingCount dos nós mudam na mesma transação da aresta
+    @Query("MATCH (a:User {userId: $followerId})-[r:FOLLOWS]->(b:User {userId: $followedId}) DELETE r " +
+           "SET a.followingCount = coalesce(a.followingCount, 1) - 1, " +
+           "    b.followersCount = coalesce(b.followersCount, 1) - 1")
     void deleteRelationship(String followerId, String followedId);
-}
\ No newline at end of file
+
+    // Custo constante: só toca a aresta, sem regravar o "following" inteiro do seguidor.
+    // false = um dos dois nós não existe (nenhuma aresta)
+    @Query("MATCH (a:User {userId: $followerId}) MATCH (b:User {userId: $followedId}) MERGE (a)-[:FOLLOWS]->(b) " +
+           "ON CREATE SET a.followingCount = coalesce(a.followingCount, 0) + 1, " +
+           "              b.followersCount = coalesce(b.followersCount, 0) + 1 " +
+           "RETURN count(b) > 0")
+    boolean createRelationship(String followerId, String followedId);
+
+    // Vários alvos numa única transação; devolve os alvos que existiam (arestas garantidas)
+    @Query("MATCH (a:User {userId: $followerId}) " +
+           "UNWIND $followedIds AS followedId " +
+           "MATCH (b:User {userId: followedId}) " +
+           "MERGE (a)-[:FOLLOWS]->(b) " +
+           "ON CREATE SET a.followingCount = coalesce(a.followingCount, 0) + 1, " +
+           "              b.followersCount = coalesce(b.followersCount, 0) + 1 " +
+           "RETURN b.userId")
+    List<String> createRelationships(String followerId, List<String> followedIds);
+
+    // Remove o nó descontando-o dos contadores de quem ele seguia e de quem o seguia;
+    // devolve esses vizinhos (os contadores deles mudaram junto)
+    @Query("MATCH (u:User {userId: $userId}) " +
+           "CALL { WITH u OPTIONAL MATCH (u)-[:FOLLOWS]->(f:User) " +
+           "       SET f.followersCount = coalesce(f.followersCount, 1) - 1 RETURN collect(f.userId) AS followed } " +
+           "CALL { WITH u OPTIONAL MATCH (f:User)-[:FOLLOWS]->(u) " +
+           "       SET f.followingCount = coalesce(f.followingCount, 1) - 1 RETURN collect(f.userId) AS followers } " +
+           "DETACH DELETE u " +
+           "WITH followed + followers AS neighbours UNWIND neighbours AS id " +
+           "RETURN DISTINCT id")
+    List<String> deleteWithCounters(String userId);
+}
@@ -0,0 +1,124 @@
+package com.academia.bancos.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limite de requisições simultâneas ajustado pela latência (estilo "gradient").
+ *
+ * A cada janela (windowMs, com pelo menos minSamples amostras) compara a latência média da janela
+ * (shortRtt) com uma média móvel longa (longRtt):
+ *   gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1.0)
+ *   novo     = limit * gradient + sqrt(limit)       (sqrt = folga de fila para poder crescer)
+ *   limit    = limit * (1 - smoothing) + novo * smoothing, dentro de [min, max]
+ * Latência subindo -> gradient < 1 -> limite cai; estável -> cresce devagar pela folga.
+ * Só cresce se a janela chegou perto do limite (sem carga não há evidência para subir).
+ */
+final class AdaptiveLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final int minSamples;
+    private final double tolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // ---- Janela corrente ----
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAccumulator maxInFlight = new LongAccumulator(Math::max, 0);
+    private volatile long windowStart = System.nanoTime();
+
+    // ---- Protegido por synchronized(this) ----
+    private double longRtt; // nanos, 0 = ainda sem referência
+    private double lastShortRtt;
+
+    AdaptiveLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                    long windowMs, int minSamples, double tolerance, double smoothing) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+        this.windowNanos = windowMs * 1_000_000L;
+        this.minSamples = minSamples;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+    }
+
+    // false = acima do limite, a requisição deve ser descartada
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) return false;
+            if (inFlight.compareAndSet(current, current + 1)) {
+                maxInFlight.accumulate(current + 1);
+                return true;
+            }
+        }
+    }
+
+    // Libera a vaga; sampled = false para respostas que não dizem nada da capacidade (erro 5xx)
+    void release(long rttNanos, boolean sampled) {
+        inFlight.decrementAndGet();
+        if (!sampled) return;
+        rttSum.add(rttNanos);
+        samples.increment();
+        long now = System.nanoTime();
+        if (now - windowStart >= windowNanos && samples.sum() >= minSamples) {
+            update(now);
+        }
+    }
+
+    private synchronized void update(long now) {
+        if (now - windowStart < windowNanos) return; // outra thread já fechou a janela
+        long count = samples.sumThenReset();
+        long sum = rttSum.sumThenReset();
+        int peak = (int) maxInFlight.getThenReset();
+        windowStart = now;
+        if (count < minSamples) return;
+
+        double shortRtt = (double) sum / count;
+        lastShortRtt = shortRtt;
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+            return;
+        }
+        // Média longa ~ últimas 10 janelas
+        longRtt = longRtt * 0.9 + shortRtt * 0.1;
+        // Depois de um pico longo a referência fica alta demais: puxa de volta para não travar em cima
+        if (longRtt / shortRtt > 2) longRtt *= 0.95;
+
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double next = current * gradient + Math.sqrt(current);
+        if (next > current && peak < current / 2) return; // ocioso: sem evidência para crescer
+        next = current * (1 - smoothing) + next * smoothing;
+        double bounded = Math.max(minLimit, Math.min(next, maxLimit));
+        if ((int) bounded != (int) current) {
+            System.out.println("🚦 Limite " + name + ": " + (int) current + " -> " + (int) bounded
+                    + " (rtt " + Math.round(shortRtt / 1e6) + "ms / ref " + Math.round(longRtt / 1e6) + "ms)");
+        }
+        limit = bounded;
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    synchronized double shortRttMs() {
+        return lastShortRtt / 1e6;
+    }
+
+    synchronized double longRttMs() {
+        return longRtt / 1e6;
+    }
+}
@@ -0,0 +1,118 @@
+package com.academia.bancos.resilience;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Circuit breaker por contagem: guarda o resultado das últimas "window" chamadas num anel.
+ * CLOSED -> OPEN quando, com pelo menos minCalls na janela, as falhas passam de failureRate%.
+ * OPEN recusa tudo por openMs; depois HALF_OPEN libera halfOpenCalls chamadas de teste:
+ * todas ok fecham o circuito, qualquer falha reabre.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final boolean[] outcomes; // true = falha
+    private final int minCalls;
+    private final int failureRate;
+    private final long openMs;
+    private final int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int calls;
+    private int failures;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    CircuitBreaker(String name, int window, int minCalls, int failureRate, long openMs, int halfOpenCalls) {
+        this.name = name;
+        this.outcomes = new boolean[window];
+        this.minCalls = Math.min(minCalls, window);
+        this.failureRate = failureRate;
+        this.openMs = openMs;
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMs) return false;
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) return false;
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    // Permissão concedida mas a chamada não aconteceu (bulkhead cheio)
+    synchronized void cancel() {
+        if (state == State.HALF_OPEN && trialsStarted > 0) trialsStarted--;
+    }
+
+    synchronized void onResult(boolean failed) {
+        switch (state) {
+            case HALF_OPEN -> {
+                if (failed) transition(State.OPEN);
+                else if (++trialsSucceeded >= halfOpenCalls) transition(State.CLOSED);
+            }
+            case CLOSED -> {
+                if (calls == outcomes.length) {
+                    if (outcomes[next]) failures--;
+                } else {
+                    calls++;
+                }
+                outcomes[next] = failed;
+                if (failed) failures++;
+                next = (next + 1) % outcomes.length;
+                if (calls >= minCalls && failures * 100 >= failureRate * calls) transition(State.OPEN);
+            }
+            case OPEN -> {
+                // Resposta atrasada de antes de abrir: não muda nada
+            }
+        }
+    }
+
+    // Aberto e ainda dentro de openMs (sem consumir vaga de teste)
+    synchronized boolean isOpen() {
+        return state == State.OPEN && System.currentTimeMillis() - openedAt < openMs;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    synchronized Map<String, Object> snapshot() {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("state", state.name().toLowerCase());
+        s.put("calls", calls);
+        s.put("failures", failures);
+        if (state == State.OPEN) s.put("retryInMs", Math.max(0, openMs - (System.currentTimeMillis() - openedAt)));
+        return s;
+    }
+
+    synchronized long retryAfterMs() {
+        return state == State.OPEN ? Math.max(0, openMs - (System.currentTimeMillis() - openedAt)) : 0;
+    }
+
+    private void transition(State to) {
+        if (to == State.OPEN) {
+            openedAt = System.currentTimeMillis();
+            System.err.println("🔌 Circuit breaker " + name + " ABERTO (" + failures + "/" + calls + " falhas na janela)");
+        } else if (to == State.CLOSED) {
+            System.out.println("🔌 Circuit breaker " + name + " fechado");
+        }
+        if (to != State.HALF_OPEN) {
+            calls = 0;
+            failures = 0;
+            next = 0;
+        }
+        trialsStarted = 0;
+        trialsSucceeded = 0;
+        state = to;
+    }
+}
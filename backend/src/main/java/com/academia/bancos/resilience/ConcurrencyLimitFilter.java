@@ -0,0 +1,195 @@
+package com.academia.bancos.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limite adaptativo de requisições simultâneas por grupo de rotas (auth, users, network).
+ *
+ * Cada grupo tem o seu AdaptiveLimiter: login lento não tira vaga da rede e vice-versa.
+ * Acima do limite a requisição volta na hora com 503 + Retry-After, em vez de esperar na fila
+ * do Tomcat e puxar a latência de todo mundo para cima.
+ *
+ * Configuração: app.limiter.enabled, app.limiter.<grupo>.initial|min|max e
+ * app.limiter.window-ms|min-samples|tolerance|smoothing (comuns aos grupos).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    // Prefixo da rota -> grupo
+    private static final Map<String, String> ROUTES = Map.of(
+            "/api/auth/", "auth",
+            "/api/users", "users",
+            "/api/network/", "network");
+
+    @Autowired private Environment env;
+    @Autowired private MeterRegistry registry;
+
+    private final Map<String, AdaptiveLimiter> limiters = new LinkedHashMap<>();
+    private final Map<String, Counter> rejected = new LinkedHashMap<>();
+    private boolean enabled;
+    private String retryAfterSeconds;
+    private String allowedOrigin;
+
+    @PostConstruct
+    void init() {
+        enabled = env.getProperty("app.limiter.enabled", Boolean.class, true);
+        retryAfterSeconds = env.getProperty("app.limiter.retry-after-seconds", "1");
+        allowedOrigin = env.getProperty("app.limiter.allowed-origin", "http://localhost:4200");
+        long windowMs = env.getProperty("app.limiter.window-ms", Long.class, 500L);
+        int minSamples = env.getProperty("app.limiter.min-samples", Integer.class, 20);
+        double tolerance = env.getProperty("app.limiter.tolerance", Double.class, 1.5);
+        double smoothing = env.getProperty("app.limiter.smoothing", Double.class, 0.2);
+
+        for (String group : new String[]{"auth", "users", "network"}) {
+            AdaptiveLimiter limiter = new AdaptiveLimiter(group,
+                    env.getProperty("app.limiter." + group + ".initial", Integer.class, 50),
+                    env.getProperty("app.limiter." + group + ".min", Integer.class, 8),
+                    env.getProperty("app.limiter." + group + ".max", Integer.class, 200),
+                    windowMs, minSamples, tolerance, smoothing);
+            limiters.put(group, limiter);
+            rejected.put(group, Counter.builder("http.limiter.rejected").tag("route", group).register(registry));
+
+            Gauge.builder("http.limiter.limit", limiter, AdaptiveLimiter::limit).tag("route", group).register(registry);
+            Gauge.builder("http.limiter.in_flight", limiter, AdaptiveLimiter::inFlight).tag("route", group).register(registry);
+            Gauge.builder("http.limiter.rtt", limiter, AdaptiveLimiter::shortRttMs)
+                    .baseUnit("milliseconds").tag("route", group).tag("window", "short").register(registry);
+            Gauge.builder("http.limiter.rtt", limiter, AdaptiveLimiter::longRttMs)
+                    .baseUnit("milliseconds").tag("route", group).tag("window", "long").register(registry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Preflight CORS não toca em banco nenhum
+        return !enabled || HttpMethod.OPTIONS.matches(request.getMethod()) || group(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String group = group(request);
+        AdaptiveLimiter limiter = limiters.get(group);
+        if (!limiter.tryAcquire()) {
+            rejected.get(group).increment();
+            reject(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean sampled = false;
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Corpo em streaming (NDJSON/StreamingResponseBody): a vaga só é devolvida quando o
+                // corpo termina de ser escrito, senão a exportação inteira rodaria fora do limite
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(limiter, start));
+                async = true;
+            } else {
+                // 5xx rápido (ex.: StoreGuard recusando) não é evidência de folga
+                sampled = response.getStatus() < 500;
+            }
+        } finally {
+            if (!async) limiter.release(System.nanoTime() - start, sampled);
+        }
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        limiters.forEach((group, l) -> {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("limit", l.limit());
+            s.put("inFlight", l.inFlight());
+            s.put("shortRttMs", Math.round(l.shortRttMs() * 10) / 10.0);
+            s.put("longRttMs", Math.round(l.longRttMs() * 10) / 10.0);
+            s.put("rejected", (long) rejected.get(group).count());
+            status.put(group, s);
+        });
+        return status;
+    }
+
+    // ================= INTERNOS =================
+
+    private static String group(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, String> route : ROUTES.entrySet()) {
+            if (path.startsWith(route.getKey())) return route.getValue();
+        }
+        return null;
+    }
+
+    // Devolve a vaga de uma requisição assíncrona uma única vez, no primeiro evento de término
+    private static final class ReleaseOnCompletion implements AsyncListener {
+
+        private final AdaptiveLimiter limiter;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnCompletion(AdaptiveLimiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+            release(response != null && response.getStatus() < 500);
+        }
+
+        // Timeout e erro não são evidência de folga
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Novo ciclo assíncrono na mesma requisição: continua ouvindo até o término
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release(boolean sampled) {
+            if (released.compareAndSet(false, true)) limiter.release(System.nanoTime() - start, sampled);
+        }
+    }
+
+    // A resposta sai antes do CORS do Spring MVC: sem o header o front veria erro de CORS, não 503
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        if (allowedOrigin.equals(request.getHeader(HttpHeaders.ORIGIN))) {
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, allowedOrigin);
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+        }
+        response.setContentType("application/json");
+        response.getWriter().write("{\"message\":\"Servidor sobrecarregado, tente novamente\"}");
+    }
+}
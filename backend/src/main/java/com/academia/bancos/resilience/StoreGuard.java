@@ -0,0 +1,307 @@
+package com.academia.bancos.resilience;
+
+import com.academia.bancos.metrics.StoreMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead + circuit breaker + prazo por banco (Postgres, Mongo, Redis, Neo4j).
+ *
+ * - Bulkhead: no máximo app.store.bulkhead.<banco> chamadas simultâneas; a excedente falha na hora
+ *   em vez de esperar. Um banco travado segura só as suas vagas, não o storeExecutor nem o Tomcat.
+ * - Circuit breaker: janela das últimas N chamadas; erro ou chamada acima do prazo conta como falha.
+ *   Passando de failure-rate%, abre por open-ms (tudo recusado), depois deixa half-open-calls de teste.
+ * - Prazo: app.store.timeout.<banco>-ms, contado do submit; em read() o chamador só espera isso e usa o fallback.
+ *   Várias chamadas disparadas juntas esperam pelo mesmo relógio (await com o instante do disparo),
+ *   então o pior caso é o maior prazo e não a soma deles.
+ * - Prazo de call()/run(): app.store.call-timeout.<banco>-ms (escritas, scans, login). Também rodam no
+ *   storeExecutor e o chamador recebe StoreUnavailableException quando o prazo vence.
+ *
+ * Casos que ficam na thread do chamador (o prazo fica com a transação e o driver, ver application.properties):
+ * Postgres/Neo4j dentro de uma transação ativa (recursos presos à thread; @Transactional com timeout)
+ * e chamadas aninhadas, que já estão numa thread do storeExecutor sob o prazo da chamada de fora.
+ */
+@Component
+public class StoreGuard {
+
+    private static final List<String> STORES =
+            List.of(StoreMetrics.POSTGRES, StoreMetrics.MONGO, StoreMetrics.REDIS, StoreMetrics.NEO4J);
+
+    @Autowired private Environment env;
+    @Autowired private MeterRegistry registry;
+    @Autowired @Qualifier("storeExecutor") private ExecutorService storeExecutor;
+
+    private final Map<String, Guard> guards = new LinkedHashMap<>();
+
+    // Marca as threads do storeExecutor enquanto executam uma chamada guardada
+    private static final ThreadLocal<Boolean> INSIDE_CALL = ThreadLocal.withInitial(() -> false);
+
+    @PostConstruct
+    void init() {
+        int window = env.getProperty("app.store.breaker.window", Integer.class, 20);
+        int minCalls = env.getProperty("app.store.breaker.min-calls", Integer.class, 10);
+        int failureRate = env.getProperty("app.store.breaker.failure-rate", Integer.class, 50);
+        long openMs = env.getProperty("app.store.breaker.open-ms", Long.class, 5000L);
+        int halfOpenCalls = env.getProperty("app.store.breaker.half-open-calls", Integer.class, 3);
+
+        for (String store : STORES) {
+            int maxConcurrent = env.getProperty("app.store.bulkhead." + store, Integer.class, 8);
+            long timeoutMs = env.getProperty("app.store.timeout." + store + "-ms", Long.class, 500L);
+            long callTimeoutMs = env.getProperty("app.store.call-timeout." + store + "-ms", Long.class, 2 * timeoutMs);
+            Guard guard = new Guard(store, maxConcurrent, timeoutMs, callTimeoutMs,
+                    new CircuitBreaker(store, window, minCalls, failureRate, openMs, halfOpenCalls));
+            guards.put(store, guard);
+
+            Gauge.builder("store.breaker.state", guard.breaker, b -> b.state().ordinal())
+                    .description("0=closed, 1=open, 2=half_open")
+                    .tag("store", store)
+                    .register(registry);
+            Gauge.builder("store.bulkhead.in_flight", guard, g -> g.maxConcurrent - g.permits.availablePermits())
+                    .tag("store", store)
+                    .register(registry);
+        }
+    }
+
+    // ================= API =================
+
+    // Síncrono para o chamador, com o prazo de call-timeout; recusado ou prazo vencido ->
+    // StoreUnavailableException, erro do banco -> propaga
+    public <T> T call(String store, String operation, Supplier<T> call) {
+        Guard guard = guard(store);
+        if (INSIDE_CALL.get() || boundToThread(store)) return callInline(guard, operation, call);
+
+        long submittedAt = System.nanoTime();
+        CompletableFuture<T> future = submit(guard, operation, call, guard.callTimeoutNanos);
+        long remainingNanos = guard.callTimeoutNanos - (System.nanoTime() - submittedAt);
+        try {
+            return future.get(Math.max(remainingNanos, 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // A chamada segue no storeExecutor até o driver responder; a vaga do bulkhead volta nessa hora
+            future.cancel(true);
+            throw new StoreUnavailableException(store, operation + " excedeu " + guard.callTimeoutMs + "ms", 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StoreUnavailableException(store, operation + " interrompida", 0);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public void run(String store, String operation, Runnable call) {
+        call(store, operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    // Como call(), mas devolve o fallback se o banco estiver indisponível ou falhar
+    public <T> T call(String store, String operation, Supplier<T> call, Supplier<T> fallback) {
+        try {
+            return call(store, operation, call);
+        } catch (RuntimeException e) {
+            degraded(store, operation, e);
+            return fallback.get();
+        }
+    }
+
+    // Roda no storeExecutor dentro do bulkhead; recusado (breaker, bulkhead ou storeExecutor cheio)
+    // -> future já falho com StoreUnavailableException
+    public <T> CompletableFuture<T> submit(String store, String operation, Supplier<T> call) {
+        Guard guard = guard(store);
+        return submit(guard, operation, call, guard.timeoutNanos);
+    }
+
+    private <T> CompletableFuture<T> submit(Guard guard, String operation, Supplier<T> call, long slowNanos) {
+        String store = guard.store;
+        try {
+            guard.acquire(operation);
+        } catch (StoreUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                boolean failed = true;
+                INSIDE_CALL.set(true);
+                try {
+                    T result = call.get();
+                    failed = false;
+                    return result;
+                } finally {
+                    INSIDE_CALL.remove();
+                    // A vaga só volta quando o banco responde, mesmo que o chamador já tenha desistido
+                    guard.release(start, failed, slowNanos);
+                }
+            }, storeExecutor);
+        } catch (RejectedExecutionException e) {
+            // Rodar na thread da requisição passaria por cima do prazo: recusa e o chamador usa o fallback
+            guard.abandon();
+            return CompletableFuture.failedFuture(
+                    new StoreUnavailableException(store, "storeExecutor sem vaga em " + operation, 0));
+        }
+    }
+
+    // Espera o resultado até o prazo do banco; null = não respondeu (timeout, erro ou recusado)
+    public <T> T await(CompletableFuture<T> future, String store, String operation) {
+        return await(future, store, operation, System.nanoTime());
+    }
+
+    // Mesmo prazo, mas contado a partir de submittedAt (System.nanoTime() antes dos submits):
+    // quem espera várias chamadas em sequência só espera o tempo que ainda resta de cada uma
+    public <T> T await(CompletableFuture<T> future, String store, String operation, long submittedAt) {
+        long remainingNanos = guard(store).timeoutNanos - (System.nanoTime() - submittedAt);
+        try {
+            // Prazo já vencido: get(0) ainda devolve o que tiver chegado
+            return future.get(Math.max(remainingNanos, 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            System.err.println("⏱️ " + store + "." + operation + " excedeu " + timeoutMs(store) + "ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            degraded(store, operation, e.getCause());
+        }
+        return null;
+    }
+
+    // Leitura com prazo garantido: submit + await, fallback em qualquer falha
+    public <T> T read(String store, String operation, Supplier<T> call, Supplier<T> fallback) {
+        T result = await(submit(store, operation, call), store, operation);
+        return result != null ? result : fallback.get();
+    }
+
+    public long callTimeoutMs(String store) {
+        return guard(store).callTimeoutMs;
+    }
+
+    public long timeoutMs(String store) {
+        return guard(store).timeoutMs;
+    }
+
+    public boolean isAvailable(String store) {
+        return !guard(store).breaker.isOpen();
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        guards.forEach((store, g) -> {
+            Map<String, Object> s = new LinkedHashMap<>(g.breaker.snapshot());
+            s.put("inFlight", g.maxConcurrent - g.permits.availablePermits());
+            s.put("maxConcurrent", g.maxConcurrent);
+            s.put("timeoutMs", g.timeoutMs);
+            s.put("callTimeoutMs", g.callTimeoutMs);
+            status.put(store, s);
+        });
+        return status;
+    }
+
+    // ================= INTERNOS =================
+
+    private Guard guard(String store) {
+        Guard guard = guards.get(store);
+        if (guard == null) throw new IllegalArgumentException("Banco desconhecido: " + store);
+        return guard;
+    }
+
+    // Na thread do chamador: o prazo fica com o driver/transação (ver a doc da classe)
+    private static <T> T callInline(Guard guard, String operation, Supplier<T> call) {
+        guard.acquire(operation);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = false;
+            return result;
+        } finally {
+            guard.release(start, failed, guard.callTimeoutNanos);
+        }
+    }
+
+    // Postgres (JPA) e Neo4j participam de @Transactional: a conexão/sessão está presa à thread da
+    // transação, então a chamada não pode mudar de thread. Mongo e Redis não têm gerenciador de transação aqui.
+    private static boolean boundToThread(String store) {
+        return (StoreMetrics.POSTGRES.equals(store) || StoreMetrics.NEO4J.equals(store))
+                && TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    // Recusas já são contadas em store.rejected; só loga falha real do banco
+    private static void degraded(String store, String operation, Throwable cause) {
+        if (!(cause instanceof StoreUnavailableException)) {
+            System.err.println("❌ " + store + "." + operation + " falhou: " + cause.getMessage());
+        }
+    }
+
+    private final class Guard {
+        final String store;
+        final int maxConcurrent;
+        final long timeoutMs;
+        final long timeoutNanos;
+        final long callTimeoutMs;
+        final long callTimeoutNanos;
+        final Semaphore permits;
+        final CircuitBreaker breaker;
+        final Counter rejectedOpen;
+        final Counter rejectedFull;
+        final Counter rejectedExecutor;
+
+        Guard(String store, int maxConcurrent, long timeoutMs, long callTimeoutMs, CircuitBreaker breaker) {
+            this.store = store;
+            this.maxConcurrent = maxConcurrent;
+            this.timeoutMs = timeoutMs;
+            this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            this.callTimeoutMs = callTimeoutMs;
+            this.callTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(callTimeoutMs);
+            this.permits = new Semaphore(maxConcurrent);
+            this.breaker = breaker;
+            this.rejectedOpen = Counter.builder("store.rejected").tag("store", store).tag("reason", "breaker_open").register(registry);
+            this.rejectedFull = Counter.builder("store.rejected").tag("store", store).tag("reason", "bulkhead_full").register(registry);
+            this.rejectedExecutor = Counter.builder("store.rejected").tag("store", store).tag("reason", "executor_full").register(registry);
+        }
+
+        void acquire(String operation) {
+            if (!breaker.tryAcquire()) {
+                rejectedOpen.increment();
+                throw new StoreUnavailableException(store, "circuit breaker aberto em " + operation, breaker.retryAfterMs());
+            }
+            if (!permits.tryAcquire()) {
+                breaker.cancel();
+                rejectedFull.increment();
+                throw new StoreUnavailableException(store, maxConcurrent + " chamadas em andamento em " + operation, 0);
+            }
+        }
+
+        // Vaga obtida mas a chamada nem saiu (storeExecutor cheio): devolve sem contar no breaker
+        void abandon() {
+            permits.release();
+            breaker.cancel();
+            rejectedExecutor.increment();
+        }
+
+        // slowNanos: acima disso a chamada conta como falha no breaker (prazo de leitura ou de call)
+        void release(long start, boolean failed, long slowNanos) {
+            permits.release();
+            breaker.onResult(failed || System.nanoTime() - start > slowNanos);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.academia.bancos.resilience;
+
+/**
+ * Chamada recusada sem tocar no banco: circuit breaker aberto ou bulkhead cheio.
+ * Os controllers respondem 503 com Retry-After.
+ */
+public class StoreUnavailableException extends RuntimeException {
+
+    private final String store;
+    private final long retryAfterMs;
+
+    public StoreUnavailableException(String store, String reason, long retryAfterMs) {
+        super(store + " indisponível (" + reason + ")");
+        this.store = store;
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public String getStore() {
+        return store;
+    }
+
+    // Quanto falta para o circuit breaker deixar passar chamadas de teste (0 = bulkhead cheio)
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
@@ -0,0 +1,240 @@
+package com.academia.bancos.seed;
+
+import com.academia.bancos.metrics.StoreMetrics;
+import com.academia.bancos.model.document.UserProfileDoc;
+import com.academia.bancos.model.dto.UserDTO;
+import com.academia.bancos.service.RedisKeyspace;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Carga em massa de usuários a partir do netflix_userbase.json.
+ * O JSON é lido registro a registro (streaming API do Jackson) e cada lote é entregue a quatro
+ * estágios de escrita (Postgres, Mongo, Neo4j, Redis) que rodam em paralelo. As filas são
+ * limitadas: se um banco ficar para trás, o parser espera em vez de acumular o arquivo na memória.
+ */
+@Component
+@Profile("!loadtest")
+public class BulkUserLoader {
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private MongoTemplate mongoTemplate;
+    @Autowired private Neo4jClient neo4jClient;
+    @Autowired private StringRedisTemplate redisTemplate;
+    @Autowired private StoreMetrics storeMetrics;
+
+    @Value("${app.seed.batch-size:500}") private int batchSize;
+    @Value("${app.seed.queue-capacity:4}") private int queueCapacity;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Marca de fim enviada a cada estágio (comparada por identidade)
+    private static final List<UserDTO> END = new ArrayList<>();
+
+    public record LoadReport(int parsed, Map<String, Integer> written, long elapsedMs) {
+        public double usersPerSecond() {
+            return elapsedMs > 0 ? parsed * 1000.0 / elapsedMs : parsed;
+        }
+    }
+
+    public LoadReport load(InputStream in, int limit, String skipUserId) throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        ensureGraphConstraint();
+
+        List<Stage> stages = List.of(
+                new Stage("Postgres", StoreMetrics.POSTGRES, this::writePostgres),
+                new Stage("MongoDB", StoreMetrics.MONGO, this::writeMongo),
+                new Stage("Neo4j", StoreMetrics.NEO4J, this::writeNeo4j),
+                new Stage("Redis", StoreMetrics.REDIS, this::writeRedis));
+
+        ExecutorService pool = Executors.newFixedThreadPool(stages.size());
+        stages.forEach(pool::execute);
+
+        int parsed = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Esperado um array JSON de usuários");
+            }
+
+            List<UserDTO> batch = new ArrayList<>(batchSize);
+            int line = 0;
+            while (parsed < limit && parser.nextToken() == JsonToken.START_OBJECT) {
+                Map<String, Object> map = parser.readValueAs(new TypeReference<Map<String, Object>>() {});
+                int i = line++;
+                try {
+                    UserDTO dto = mapToDto(map);
+                    if (dto.getUserId() == null || dto.getUserId().equals(skipUserId)) continue;
+                    if (dto.getEmail() == null) dto.setEmail("user" + i + "@example.com");
+                    if (dto.getPassword() == null) dto.setPassword("123456");
+                    batch.add(dto);
+                    parsed++;
+                } catch (Exception e) {
+                    System.err.println("   ❌ Erro linha " + i + ": " + e.getMessage());
+                }
+
+                if (batch.size() >= batchSize) {
+                    dispatch(stages, batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) dispatch(stages, batch);
+        } finally {
+            for (Stage stage : stages) stage.queue.put(END);
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.MINUTES);
+        }
+
+        Map<String, Integer> written = new LinkedHashMap<>();
+        stages.forEach(s -> written.put(s.name, s.written));
+        return new LoadReport(parsed, written, System.currentTimeMillis() - start);
+    }
+
+    // Sem a constraint, cada MERGE por userId varre todos os nós :User
+    void ensureGraphConstraint() {
+        storeMetrics.run(StoreMetrics.NEO4J, "createConstraint",
+                () -> neo4jClient.query("CREATE CONSTRAINT user_userId IF NOT EXISTS FOR (u:User) REQUIRE u.userId IS UNIQUE").run());
+    }
+
+    // O mesmo lote (somente leitura) vai para as quatro filas
+    private void dispatch(List<Stage> stages, List<UserDTO> batch) throws InterruptedException {
+        for (Stage stage : stages) stage.queue.put(batch);
+        System.out.print(".");
+    }
+
+    // ================= ESTÁGIOS DE ESCRITA =================
+
+    private void writePostgres(List<UserDTO> batch) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (user_id, email, password_hash) VALUES (?, ?, ?) " +
+                "ON CONFLICT (user_id) DO UPDATE SET email = EXCLUDED.email, password_hash = EXCLUDED.password_hash",
+                batch.stream().map(d -> new Object[]{d.getUserId(), d.getEmail(), d.getPassword()})
+                        .collect(Collectors.toList()));
+    }
+
+    private void writeMongo(List<UserDTO> batch) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserProfileDoc.class);
+        for (UserDTO dto : batch) {
+            UserProfileDoc doc = new UserProfileDoc();
+            doc.setUserId(dto.getUserId());
+            doc.setAge(dto.getAge());
+            doc.setCountry(dto.getCountry());
+            doc.setSubscriptionType(dto.getSubscriptionType());
+            doc.setGenres(dto.getGenres());
+            ops.replaceOne(Query.query(Criteria.where("_id").is(dto.getUserId())), doc,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        ops.execute();
+    }
+
+    private void writeNeo4j(List<UserDTO> batch) {
+        neo4jClient.query("UNWIND $ids AS id MERGE (:User {userId: id})")
+                .bind(batch.stream().map(UserDTO::getUserId).collect(Collectors.toList())).to("ids")
+                .run();
+    }
+
+    private void writeRedis(List<UserDTO> batch) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            for (UserDTO dto : batch) {
+                String loginCount = dto.getLoginCount() != null ? dto.getLoginCount().toString() : "0";
+                conn.set("login_count:" + dto.getUserId(), loginCount);
+                // Simula que alguns usuários estão "offline"
+                conn.set("session:" + dto.getUserId(), "OFFLINE");
+            }
+            String[] ids = batch.stream().map(UserDTO::getUserId).toArray(String[]::new);
+            conn.sAdd(RedisKeyspace.registryKey(RedisKeyspace.LOGIN_COUNT), ids);
+            conn.sAdd(RedisKeyspace.registryKey(RedisKeyspace.SESSION), ids);
+            return null;
+        });
+    }
+
+    private final class Stage implements Runnable {
+        private final String name;
+        private final String store;
+        private final Consumer<List<UserDTO>> writer;
+        private final BlockingQueue<List<UserDTO>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private volatile int written;
+
+        Stage(String name, String store, Consumer<List<UserDTO>> writer) {
+            this.name = name;
+            this.store = store;
+            this.writer = writer;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    List<UserDTO> batch = queue.take();
+                    if (batch == END) return;
+                    try {
+                        // Um lote = uma chamada em store.calls{operation=bulkUpsert}
+                        storeMetrics.run(store, "bulkUpsert", () -> writer.accept(batch));
+                        written += batch.size();
+                    } catch (Exception e) {
+                        System.err.println("   ❌ " + name + ": lote de " + batch.size() + " falhou: " + e.getMessage());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static UserDTO mapToDto(Map<String, Object> map) {
+        UserDTO dto = new UserDTO();
+        dto.setUserId((String) map.get("userId"));
+
+        Map<String, Object> credentials = (Map<String, Object>) map.get("credentials");
+        if (credentials != null) {
+            dto.setEmail((String) credentials.get("email"));
+            dto.setPassword((String) credentials.get("passwordHash"));
+        }
+
+        Map<String, Object> profile = (Map<String, Object>) map.get("profile");
+        if (profile != null) {
+            dto.setAge((Integer) profile.get("age"));
+            dto.setCountry((String) profile.get("country"));
+            dto.setSubscriptionType((String) profile.get("subscriptionType"));
+            Object genresObj = profile.get("genres");
+            if (genresObj instanceof List) dto.setGenres((List<String>) genresObj);
+        }
+
+        Object loginCountObj = map.get("loginCount");
+        if (loginCountObj != null) {
+            dto.setLoginCount(loginCountObj instanceof Integer ? (Integer) loginCountObj : Integer.parseInt(loginCountObj.toString()));
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,99 @@
+package com.academia.bancos.seed;
+
+import com.academia.bancos.metrics.StoreMetrics;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Importa arestas FOLLOWS em lotes: um único UNWIND ... MATCH ... MERGE parametrizado por lote,
+ * em vez de carregar/salvar os UserNode (o save do SDN regrava todo o "following" do seguidor).
+ */
+@Component
+@Profile("!loadtest")
+public class RelationshipImporter {
+
+    private static final String MERGE_BATCH =
+            "UNWIND $rels AS rel " +
+            "MATCH (a:User {userId: rel.followerId}) " +
+            "MATCH (b:User {userId: rel.followedId}) " +
+            "MERGE (a)-[:FOLLOWS]->(b) " +
+            "RETURN count(*) AS edges";
+
+    @Autowired private Neo4jClient neo4jClient;
+    @Autowired private StoreMetrics storeMetrics;
+
+    @Value("${app.seed.relationship-batch-size:5000}") private int batchSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public record ImportReport(long read, long edges, long elapsedMs) {
+        public double edgesPerSecond() {
+            return elapsedMs > 0 ? edges * 1000.0 / elapsedMs : edges;
+        }
+    }
+
+    // Lê o JSON em streaming; arestas cujos usuários não existem no grafo são ignoradas pelo MATCH
+    public ImportReport importFrom(InputStream in) throws IOException {
+        long start = System.currentTimeMillis();
+        long read = 0;
+        long edges = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Esperado um array JSON de relacionamentos");
+            }
+
+            List<Map<String, String>> batch = new ArrayList<>(batchSize);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                Map<String, String> rel = parser.readValueAs(new TypeReference<Map<String, String>>() {});
+                if (rel.get("followerId") == null || rel.get("followedId") == null) continue;
+                batch.add(rel);
+                read++;
+
+                if (batch.size() >= batchSize) {
+                    edges += mergeBatch(batch);
+                    batch = new ArrayList<>(batchSize);
+                    System.out.print(".");
+                }
+            }
+            if (!batch.isEmpty()) edges += mergeBatch(batch);
+        }
+
+        return new ImportReport(read, edges, System.currentTimeMillis() - start);
+    }
+
+    // Liga o admin (nos dois sentidos) a alguns usuários, sem hidratar entidades
+    public long connectBothWays(String userId, int count) {
+        return storeMetrics.record(StoreMetrics.NEO4J, "connectBothWays", () -> neo4jClient.query(
+                        "MATCH (me:User {userId: $userId}) " +
+                        "MATCH (u:User) WHERE u.userId <> $userId " +
+                        "WITH me, u LIMIT $count " +
+                        "MERGE (me)-[:FOLLOWS]->(u) " +
+                        "MERGE (u)-[:FOLLOWS]->(me) " +
+                        "RETURN count(u) AS linked")
+                .bind(userId).to("userId")
+                .bind(count).to("count")
+                .fetchAs(Long.class).one()
+                .orElse(0L));
+    }
+
+    private long mergeBatch(List<Map<String, String>> batch) {
+        return storeMetrics.record(StoreMetrics.NEO4J, "mergeFollows", () -> neo4jClient.query(MERGE_BATCH)
+                .bind(batch).to("rels")
+                .fetchAs(Long.class).one()
+                .orElse(0L));
+    }
+}
@@ -0,0 +1,63 @@
+package com.academia.bancos.service;
+
+import com.academia.bancos.metrics.StoreMetrics;
+import com.academia.bancos.model.entity.UserEntity;
+import com.academia.bancos.repository.UserRepositoryPG;
+import com.academia.bancos.resilience.StoreGuard;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache limitado email -> credenciais para o login não ir ao Postgres a cada tentativa.
+ * Só guarda emails encontrados; alterações/remoções chegam pelo mesmo canal pub/sub do near-cache.
+ */
+@Component
+public class CredentialCache {
+
+    public record Credentials(String userId, String email, String passwordHash) {}
+
+    @Autowired private UserRepositoryPG postgresRepo;
+    @Autowired private StoreGuard storeGuard;
+
+    @Value("${app.cache.credentials.max-size:10000}") private long maxSize;
+    @Value("${app.cache.credentials.ttl-seconds:600}") private long ttlSeconds;
+
+    private Cache<String, Credentials> byEmail;
+
+    @PostConstruct
+    void init() {
+        byEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public Optional<Credentials> findByEmail(String email) {
+        Credentials cached = byEmail.getIfPresent(email);
+        if (cached != null) return Optional.of(cached);
+
+        // Miss com o Postgres fora -> StoreUnavailableException (503); quem está no cache continua logando
+        Optional<UserEntity> user = storeGuard.call(StoreMetrics.POSTGRES, "findByEmail", () -> postgresRepo.findByEmail(email));
+        user.ifPresent(u -> byEmail.put(email, new Credentials(u.getUserId(), u.getEmail(), u.getPasswordHash())));
+        return user.map(u -> new Credentials(u.getUserId(), u.getEmail(), u.getPasswordHash()));
+    }
+
+    // Chave é o email, então a remoção por userId varre o cache (só acontece em update/delete)
+    public void invalidateUser(String userId) {
+        byEmail.asMap().values().removeIf(c -> c.userId().equals(userId));
+    }
+
+    // Chamado pelo listener do Redis com as mesmas mensagens do UserNearCache
+    public void onInvalidation(String message) {
+        if (message.startsWith(UserNearCache.DTO_PREFIX)) {
+            invalidateUser(message.substring(UserNearCache.DTO_PREFIX.length()));
+        }
+    }
+}
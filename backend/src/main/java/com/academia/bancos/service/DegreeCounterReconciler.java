@@ -0,0 +1,28 @@
+package com.academia.bancos.service;
+
+import com.academia.bancos.repository.UserGraphQueries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recalcula em massa followersCount/followingCount (ex.: após importações que criam
+ * arestas sem passar pelos contadores, ou para corrigir qualquer desvio).
+ */
+@Component
+public class DegreeCounterReconciler {
+
+    @Autowired private UserGraphQueries graphQueries;
+    @Autowired private UserVersions versions;
+
+    @Scheduled(cron = "${app.graph.degree-reconcile-cron:0 0 3 * * *}")
+    public long reconcile() {
+        long start = System.currentTimeMillis();
+        long nodes = graphQueries.rebuildDegreeCounters();
+        // followersCount/followingCount de qualquer usuário pode ter mudado (cada instância roda o seu)
+        versions.touchAll();
+        System.out.println("🔁 Contadores de grau reconciliados: " + nodes + " nós em "
+                + (System.currentTimeMillis() - start) + " ms");
+        return nodes;
+    }
+}
@@ -0,0 +1,135 @@
+package com.academia.bancos.service;
+
+import com.academia.bancos.metrics.StoreMetrics;
+import com.academia.bancos.resilience.StoreGuard;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind dos contadores de login (login_count:*).
+ * Cada login só soma num LongAdder em memória; um flush periódico manda todos os deltas
+ * pendentes ao Redis num único pipeline de INCRBY. Leituras somam o que ainda não foi enviado.
+ *
+ * O GET no Redis e o pending() são duas leituras: um flush no meio delas perderia o delta (INCRBY
+ * depois do GET) ou contaria duas vezes (INCRBY antes do GET, ainda em inFlight). read() faz as duas
+ * sob um contador de versão (seqlock): ímpar enquanto um flush está em andamento, e a leitura só é
+ * consistente se a versão era par e não mudou.
+ */
+@Component
+public class LoginCounterBuffer {
+
+    @Autowired private StringRedisTemplate redisTemplate;
+    @Autowired private StoreMetrics storeMetrics;
+    @Autowired private StoreGuard storeGuard;
+
+    // Um adder por usuário que já logou; as entradas ficam (zeradas) para não perder incrementos
+    // concorrentes com o flush, então o mapa é limitado pelo número de usuários.
+    private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // Deltas já retirados de "pending" mas ainda dentro do pipeline em andamento
+    private volatile Map<String, Long> inFlight = Map.of();
+
+    // Ímpar do início do flush (antes de zerar os adders) até inFlight ser limpo depois do pipeline
+    private final AtomicLong flushVersion = new AtomicLong();
+
+    private static final int READ_ATTEMPTS = 3;
+
+    // Lock e não synchronized: o flush faz I/O e, em thread virtual, synchronized prende a carrier
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public void increment(String userId) {
+        pending.computeIfAbsent(userId, id -> new LongAdder()).increment();
+    }
+
+    // Quanto ainda não chegou ao Redis para este usuário (sozinho é só estimativa; com o Redis, use read())
+    public long pending(String userId) {
+        LongAdder adder = pending.get(userId);
+        long delta = adder != null ? adder.sum() : 0;
+        return delta + inFlight.getOrDefault(userId, 0L);
+    }
+
+    // "read" deve fazer o GET/MGET e somar pending(); repete enquanto um flush cruzar a leitura.
+    // Depois de READ_ATTEMPTS devolve a última leitura mesmo assim (pode ter um delta a mais ou a menos).
+    public <T> T read(Supplier<T> read) {
+        T value = null;
+        for (int attempt = 0; attempt < READ_ATTEMPTS; attempt++) {
+            long before = version();
+            value = read.get();
+            if (unchangedSince(before)) return value;
+        }
+        return value;
+    }
+
+    // Quem guarda um valor lido (near-cache) pega version() antes da leitura e só guarda se unchangedSince()
+    public long version() {
+        return flushVersion.get();
+    }
+
+    // true se nenhum flush estava em andamento em "version" nem começou desde então
+    public boolean unchangedSince(long version) {
+        return (version & 1) == 0 && version == flushVersion.get();
+    }
+
+    @Scheduled(fixedDelayString = "${app.login-counter.flush-interval-ms:200}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            // Breaker do Redis aberto: os deltas esperam em "pending" até ele voltar
+            if (!storeGuard.isAvailable(StoreMetrics.REDIS)) return;
+
+            Map<String, Long> batch = new HashMap<>();
+            boolean failed = false;
+            flushVersion.incrementAndGet();
+            try {
+                pending.forEach((userId, adder) -> {
+                    long delta = adder.sumThenReset();
+                    if (delta != 0) batch.put(userId, delta);
+                });
+                inFlight = batch;
+                if (batch.isEmpty()) return;
+
+                // Espera o resultado real, sem o prazo de call(): desistir no prazo e devolver os deltas contaria
+                // duas vezes se o pipeline ainda chegasse ao Redis. A espera é limitada pelo timeout do driver.
+                storeGuard.submit(StoreMetrics.REDIS, "loginCounterFlush", () -> storeMetrics.record(StoreMetrics.REDIS, "loginCounterFlush", () -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    StringRedisConnection conn = (StringRedisConnection) connection;
+                    batch.forEach((userId, delta) -> {
+                        conn.incrBy("login_count:" + userId, delta);
+                        conn.sAdd(RedisKeyspace.registryKey(RedisKeyspace.LOGIN_COUNT), userId);
+                        // Avisa as outras instâncias só depois que o novo valor está no Redis
+                        conn.publish(UserNearCache.CHANNEL, UserNearCache.LOGIN_PREFIX + userId);
+                    });
+                    return null;
+                }))).join();
+            } catch (Exception e) {
+                failed = true;
+                System.err.println("⚠️ Flush de login_count falhou (" + batch.size() + " chaves): " + e.getMessage());
+            } finally {
+                // Só depois do pipeline terminar: no sucesso o delta já está no Redis; na falha
+                // volta para "pending" (próxima rodada). Leituras que cruzaram tudo isso repetem.
+                if (failed) batch.forEach((userId, delta) -> pending.computeIfAbsent(userId, id -> new LongAdder()).add(delta));
+                inFlight = Map.of();
+                flushVersion.incrementAndGet();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,194 @@
+package com.academia.bancos.service;
+
+import com.academia.bancos.graph.GraphSnapshotService;
+import com.academia.bancos.metrics.StoreMetrics;
+import com.academia.bancos.model.document.UserProfileDoc;
+import com.academia.bancos.model.dto.UserDTO;
+import com.academia.bancos.model.entity.OutboxEvent;
+import com.academia.bancos.repository.OutboxRepository;
+import com.academia.bancos.resilience.StoreGuard;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Propaga os eventos do outbox para Mongo, Neo4j e Redis em lotes.
+ * Todas as operações são idempotentes (upsert/MERGE/SETNX, deletes tolerantes), então reprocessar
+ * um evento depois de uma falha parcial é seguro. Falhas voltam com backoff exponencial.
+ * Cada banco passa pelo StoreGuard: breaker aberto ou bulkhead cheio também volta com backoff.
+ * Só existe com app.writes.mode=outbox (em sync não há o que consumir).
+ */
+@Component
+@Profile("!loadtest")
+@ConditionalOnProperty(name = "app.writes.mode", havingValue = "outbox")
+public class OutboxApplier {
+
+    @Autowired private OutboxRepository outboxRepo;
+    @Autowired private MongoTemplate mongoTemplate;
+    @Autowired private Neo4jClient neo4jClient;
+    @Autowired private StringRedisTemplate redisTemplate;
+    @Autowired private GraphSnapshotService graphSnapshot;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private ProfileStatsService profileStats;
+    @Autowired private UserVersions versions;
+    @Autowired private UserNearCache nearCache;
+    @Autowired private StoreGuard storeGuard;
+    @Autowired private StoreMetrics storeMetrics;
+
+    @Value("${app.outbox.batch-size:200}") private int batchSize;
+    @Value("${app.outbox.max-attempts:10}") private int maxAttempts;
+    @Value("${app.outbox.backoff-base-ms:500}") private long backoffBaseMs;
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:100}")
+    @Transactional(timeoutString = "${app.outbox.tx-timeout-s:5}")
+    public void poll() {
+        List<OutboxEvent> batch = outboxRepo.lockNextBatch(batchSize);
+        if (batch.isEmpty()) return;
+
+        // Sequências consecutivas do mesmo tipo viram um lote; a ordem create/delete é preservada
+        int from = 0;
+        while (from < batch.size()) {
+            OutboxEvent.Type type = batch.get(from).getType();
+            int to = from;
+            while (to < batch.size() && batch.get(to).getType() == type) to++;
+            applyRun(type, batch.subList(from, to));
+            from = to;
+        }
+    }
+
+    private void applyRun(OutboxEvent.Type type, List<OutboxEvent> run) {
+        try {
+            if (type == OutboxEvent.Type.USER_CREATED) {
+                applyCreated(run);
+            } else {
+                applyDeleted(run);
+            }
+            Instant now = Instant.now();
+            run.forEach(e -> {
+                e.setStatus(OutboxEvent.Status.DONE);
+                e.setProcessedAt(now);
+            });
+        } catch (Exception ex) {
+            String error = String.valueOf(ex.getMessage());
+            run.forEach(e -> {
+                e.setAttempts(e.getAttempts() + 1);
+                e.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+                if (e.getAttempts() >= maxAttempts) {
+                    e.setStatus(OutboxEvent.Status.FAILED);
+                } else {
+                    long delay = backoffBaseMs << Math.min(e.getAttempts() - 1, 10);
+                    e.setAvailableAt(Instant.now().plusMillis(delay));
+                }
+            });
+            System.err.println("⚠️ Outbox: lote " + type + " (" + run.size() + ") falhou: " + error);
+        }
+    }
+
+    private void applyCreated(List<OutboxEvent> run) throws Exception {
+        List<UserDTO> users = new ArrayList<>(run.size());
+        for (OutboxEvent e : run) users.add(objectMapper.readValue(e.getPayload(), UserDTO.class));
+        List<String> ids = users.stream().map(UserDTO::getUserId).collect(Collectors.toList());
+
+        // Mongo: upsert por _id
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserProfileDoc.class);
+        List<UserProfileDoc> docs = new ArrayList<>(users.size());
+        for (UserDTO dto : users) {
+            UserProfileDoc doc = new UserProfileDoc();
+            doc.setUserId(dto.getUserId());
+            doc.setAge(dto.getAge());
+            doc.setCountry(dto.getCountry());
+            doc.setSubscriptionType(dto.getSubscriptionType());
+            doc.setGenres(dto.getGenres());
+            docs.add(doc);
+            ops.replaceOne(Query.query(Criteria.where("_id").is(dto.getUserId())), doc,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        BulkWriteResult written = storeGuard.call(StoreMetrics.MONGO, "outbox.upsert",
+                () -> storeMetrics.record(StoreMetrics.MONGO, "outbox.upsert", ops::execute));
+
+        // Só os que foram inseridos agora contam: reprocessar o evento não conta duas vezes
+        List<UserProfileDoc> inserted = new ArrayList<>();
+        written.getUpserts().forEach(u -> inserted.add(docs.get(u.getIndex())));
+        profileStats.record(inserted, List.of());
+
+        // Neo4j: MERGE do nó
+        storeGuard.run(StoreMetrics.NEO4J, "outbox.merge", () -> storeMetrics.run(StoreMetrics.NEO4J, "outbox.merge",
+                () -> neo4jClient.query("UNWIND $ids AS id MERGE (:User {userId: id})").bind(ids).to("ids").run()));
+
+        // Redis: SETNX para não zerar um contador já existente num reprocessamento
+        storeGuard.run(StoreMetrics.REDIS, "outbox.setnx", () -> storeMetrics.run(StoreMetrics.REDIS, "outbox.setnx",
+                () -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    StringRedisConnection conn = (StringRedisConnection) connection;
+                    ids.forEach(id -> conn.setNX("login_count:" + id, "0"));
+                    conn.sAdd(RedisKeyspace.registryKey(RedisKeyspace.LOGIN_COUNT), ids.toArray(String[]::new));
+                    return null;
+                })));
+        versions.announce(ids);
+    }
+
+    private void applyDeleted(List<OutboxEvent> run) {
+        List<String> ids = run.stream().map(OutboxEvent::getAggregateId).distinct().collect(Collectors.toList());
+
+        // Lê antes de remover para descontar das estatísticas só o que ainda existia
+        Query profiles = Query.query(Criteria.where("_id").in(ids));
+        List<UserProfileDoc> existing = storeGuard.call(StoreMetrics.MONGO, "outbox.remove", () -> storeMetrics.record(StoreMetrics.MONGO, "outbox.remove", () -> {
+            List<UserProfileDoc> found = mongoTemplate.find(profiles, UserProfileDoc.class);
+            mongoTemplate.remove(profiles, UserProfileDoc.class);
+            return found;
+        }));
+        profileStats.record(List.of(), existing);
+
+        // Devolve os vizinhos: os contadores de grau deles mudaram junto
+        Collection<String> neighbours = storeGuard.call(StoreMetrics.NEO4J, "outbox.delete", () -> storeMetrics.record(StoreMetrics.NEO4J, "outbox.delete",
+                () -> neo4jClient.query(
+                                "UNWIND $ids AS id " +
+                                "MATCH (u:User {userId: id}) " +
+                                "CALL { WITH u OPTIONAL MATCH (u)-[:FOLLOWS]->(f:User) " +
+                                "       SET f.followersCount = coalesce(f.followersCount, 1) - 1 RETURN collect(f.userId) AS followed } " +
+                                "CALL { WITH u OPTIONAL MATCH (f:User)-[:FOLLOWS]->(u) " +
+                                "       SET f.followingCount = coalesce(f.followingCount, 1) - 1 RETURN collect(f.userId) AS followers } " +
+                                "DETACH DELETE u " +
+                                "WITH followed + followers AS neighbours UNWIND neighbours AS id " +
+                                "RETURN DISTINCT id")
+                        .bind(ids).to("ids")
+                        .fetchAs(String.class).mappedBy((types, record) -> record.get("id").asString())
+                        .all()));
+        ids.forEach(graphSnapshot::removeNode);
+
+        List<String> keys = new ArrayList<>();
+        ids.forEach(id -> keys.addAll(RedisKeyspace.userKeys(id)));
+        storeGuard.run(StoreMetrics.REDIS, "outbox.unlink", () -> storeMetrics.run(StoreMetrics.REDIS, "outbox.unlink", () -> {
+            redisTemplate.unlink(keys);
+            RedisKeyspace.USER_PREFIXES.forEach(prefix ->
+                    redisTemplate.opsForSet().remove(RedisKeyspace.registryKey(prefix), ids.toArray()));
+        }));
+        versions.announce(ids);
+
+        List<String> changed = neighbours.stream().filter(id -> !ids.contains(id)).collect(Collectors.toList());
+        if (!changed.isEmpty()) {
+            nearCache.invalidate(changed);
+            versions.touch(changed.toArray(String[]::new));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.academia.bancos.service;
+
+import com.academia.bancos.model.entity.OutboxEvent;
+import com.academia.bancos.repository.OutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class OutboxService {
+
+    @Autowired private OutboxRepository outboxRepo;
+    @Autowired private ObjectMapper objectMapper;
+
+    // Precisa rodar dentro da transação de quem chama (mesmo commit da escrita no Postgres)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(OutboxEvent.Type type, String userId, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setAggregateId(userId);
+        try {
+            event.setPayload(payload != null ? objectMapper.writeValueAsString(payload) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Payload do outbox inválido", e);
+        }
+        Instant now = Instant.now();
+        event.setCreatedAt(now);
+        event.setAvailableAt(now);
+        outboxRepo.save(event);
+    }
+
+    // Lag = idade do evento pendente mais antigo
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", outboxRepo.countByStatus(OutboxEvent.Status.PENDING));
+        stats.put("failed", outboxRepo.countByStatus(OutboxEvent.Status.FAILED));
+        stats.put("lagMs", lagMs());
+        return stats;
+    }
+
+    public long lagMs() {
+        return outboxRepo.findFirstByStatusOrderByIdAsc(OutboxEvent.Status.PENDING)
+                .map(e -> Duration.between(e.getCreatedAt(), Instant.now()).toMillis())
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,114 @@
+package com.academia.bancos.service;
+
+import com.academia.bancos.metrics.StoreMetrics;
+import com.academia.bancos.model.document.UserProfileDoc;
+import com.academia.bancos.repository.ProfileStatsQueries;
+import com.academia.bancos.resilience.StoreGuard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Distribuição dos perfis (país, gênero, faixa etária) para os gráficos do dashboard.
+ *
+ * createUser/updateUser/deleteUser (e o OutboxApplier) mandam o antes/depois de cada perfil e os
+ * contadores em profile_stats recebem os deltas; GET /api/stats/profiles lê só essa coleção pequena
+ * em vez de varrer user_profiles. Cargas em lote (seed) não passam por aqui: a recontagem pelo
+ * pipeline de agregação roda depois delas e de madrugada, corrigindo qualquer desvio.
+ */
+@Service
+public class ProfileStatsService {
+
+    private static final List<String> AGE_ORDER = List.of("0-17", "18-24", "25-34", "35-44", "45-54", "55-64", "65+", "unknown");
+
+    @Autowired private ProfileStatsQueries statsQueries;
+    @Autowired private StoreGuard storeGuard;
+
+    // Perfis que passaram a existir (ou o estado novo) e os que deixaram (ou o estado antigo)
+    public void record(Collection<UserProfileDoc> added, Collection<UserProfileDoc> removed) {
+        Map<String, Long> deltas = new HashMap<>();
+        added.forEach(doc -> keys(doc).forEach(k -> deltas.merge(k, 1L, Long::sum)));
+        removed.forEach(doc -> keys(doc).forEach(k -> deltas.merge(k, -1L, Long::sum)));
+        deltas.values().removeIf(d -> d == 0);
+        if (deltas.isEmpty()) return;
+
+        // Dispensável para a escrita do usuário: se falhar, a próxima recontagem acerta
+        storeGuard.call(StoreMetrics.MONGO, "profileStats", () -> {
+            statsQueries.increment(deltas);
+            return null;
+        }, () -> null);
+    }
+
+    // Contadores materializados (uma leitura pequena)
+    public Map<String, Object> profiles() {
+        return shape(storeGuard.call(StoreMetrics.MONGO, "profileStatsRead", statsQueries::counters), "counters");
+    }
+
+    // Mesmo formato, calculado na hora pelo pipeline (para conferir os contadores)
+    public Map<String, Object> aggregate() {
+        return shape(storeGuard.call(StoreMetrics.MONGO, "profileStatsAggregate", statsQueries::aggregate), "aggregation");
+    }
+
+    @Scheduled(cron = "${app.stats.reconcile-cron:0 30 3 * * *}")
+    public long rebuild() {
+        long start = System.currentTimeMillis();
+        long counters = statsQueries.replaceAll(statsQueries.aggregate());
+        System.out.println("📈 Estatísticas de perfil recontadas: " + counters + " contadores em "
+                + (System.currentTimeMillis() - start) + " ms");
+        return counters;
+    }
+
+    // Chaves "dimensão:valor" que um perfil incrementa (as mesmas que o pipeline produz)
+    public static List<String> keys(UserProfileDoc doc) {
+        List<String> keys = new ArrayList<>();
+        keys.add("total:all");
+        keys.add("country:" + (doc.getCountry() != null ? doc.getCountry() : "unknown"));
+        keys.add("age:" + ProfileStatsQueries.ageLabel(doc.getAge()));
+        if (doc.getGenres() != null) {
+            doc.getGenres().forEach(g -> keys.add("genre:" + (g != null ? g : "unknown")));
+        }
+        return keys;
+    }
+
+    // {source, total, country:{..}, genre:{..}, age:{..}}; países e gêneros do maior para o menor
+    private static Map<String, Object> shape(List<ProfileStatsQueries.Counter> counters, String source) {
+        Map<String, Long> country = new LinkedHashMap<>();
+        Map<String, Long> genre = new LinkedHashMap<>();
+        Map<String, Long> age = new LinkedHashMap<>();
+        long total = 0;
+
+        List<ProfileStatsQueries.Counter> sorted = new ArrayList<>(counters);
+        sorted.sort(Comparator.comparingLong(ProfileStatsQueries.Counter::count).reversed()
+                .thenComparing(ProfileStatsQueries.Counter::value));
+        for (ProfileStatsQueries.Counter c : sorted) {
+            if (c.count() <= 0) continue;
+            switch (c.dimension()) {
+                case "total" -> total = c.count();
+                case "country" -> country.put(c.value(), c.count());
+                case "genre" -> genre.put(c.value(), c.count());
+                case "age" -> age.put(c.value(), c.count());
+                default -> { }
+            }
+        }
+        Map<String, Long> ageOrdered = new LinkedHashMap<>();
+        AGE_ORDER.forEach(label -> {
+            if (age.containsKey(label)) ageOrdered.put(label, age.get(label));
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("source", source);
+        result.put("total", total);
+        result.put("country", country);
+        result.put("genre", genre);
+        result.put("age", ageOrdered);
+        return result;
+    }
+}
@@ -0,0 +1,102 @@
+package com.academia.bancos.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Manutenção do keyspace do Redis sem bloquear o servidor:
+ * SCAN incremental (com COUNT) no lugar de KEYS, UNLINK em lotes no lugar de DEL,
+ * e contagens via um SET de registro por prefixo (SCARD é O(1)) em vez de varrer as chaves.
+ * Cada chave por usuário (login_count:, session:, last_login:) entra no registro do seu prefixo
+ * por quem a grava (UserService, AuthController, LoginCounterBuffer, BulkUserLoader, outbox).
+ */
+@Component
+public class RedisKeyspace {
+
+    public static final String LOGIN_COUNT = "login_count";
+    public static final String SESSION = "session";
+    public static final String LAST_LOGIN = "last_login";
+    // Prefixos das chaves por usuário, cada um com o seu registro
+    public static final List<String> USER_PREFIXES = List.of(LOGIN_COUNT, SESSION, LAST_LOGIN);
+
+    @Autowired private StringRedisTemplate redisTemplate;
+
+    @Value("${app.redis.scan-count:1000}") private long scanCount;
+    @Value("${app.redis.unlink-batch-size:500}") private int unlinkBatchSize;
+
+    // SET com os userIds que possuem chave "<prefixo>:<userId>"
+    public static String registryKey(String prefix) {
+        return "keyspace:" + prefix;
+    }
+
+    public void track(String prefix, String userId) {
+        redisTemplate.opsForSet().add(registryKey(prefix), userId);
+    }
+
+    public void untrack(String prefix, String userId) {
+        redisTemplate.opsForSet().remove(registryKey(prefix), userId);
+    }
+
+    // Usuário removido: tira de todos os registros num único pipeline
+    public void untrackAll(String userId) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            USER_PREFIXES.forEach(prefix -> conn.sRem(registryKey(prefix), userId));
+            return null;
+        });
+    }
+
+    // Chaves "<prefixo>:<userId>" de todos os prefixos
+    public static List<String> userKeys(String userId) {
+        List<String> keys = new ArrayList<>(USER_PREFIXES.size());
+        USER_PREFIXES.forEach(prefix -> keys.add(prefix + ":" + userId));
+        return keys;
+    }
+
+    public long count(String prefix) {
+        Long size = redisTemplate.opsForSet().size(registryKey(prefix));
+        return size != null ? size : 0;
+    }
+
+    // userIds registrados (SMEMBERS): listagem ?source=redis sem varrer o keyspace
+    public Set<String> members(String prefix) {
+        Set<String> members = redisTemplate.opsForSet().members(registryKey(prefix));
+        return members != null ? members : Set.of();
+    }
+
+    // Remove todas as chaves "<prefixo>:*" e o registro; devolve quantas chaves foram removidas
+    public long purge(String prefix) {
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + ":*").count(scanCount).build();
+        long removed = 0;
+        List<String> batch = new ArrayList<>(unlinkBatchSize);
+
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() >= unlinkBatchSize) {
+                    removed += unlink(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) removed += unlink(batch);
+
+        redisTemplate.unlink(registryKey(prefix));
+        return removed;
+    }
+
+    private long unlink(List<String> keys) {
+        Long n = redisTemplate.unlink(keys);
+        return n != null ? n : 0;
+    }
+}
@@ -0,0 +1,200 @@
+package com.academia.bancos.service;
+
+import com.academia.bancos.metrics.StoreMetrics;
+import com.academia.bancos.model.dto.UserDTO;
+import com.academia.bancos.resilience.StoreGuard;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Near-cache (em memória, por instância) dos UserDTOs já agregados.
+ * Invalidações são publicadas no Redis (pub/sub) para que todas as instâncias do backend
+ * descartem a mesma entrada; ver RedisPubSubConfig.
+ */
+@Component
+public class UserNearCache {
+
+    public static final String CHANNEL = "users:invalidate";
+    public static final String DTO_PREFIX = "dto:";
+    public static final String LOGIN_PREFIX = "login:";
+    private static final int ALL_STORES = 4;
+
+    @Autowired private StringRedisTemplate redisTemplate;
+    @Autowired private LoginCounterBuffer loginCounter;
+    @Autowired private StoreGuard storeGuard;
+    @Autowired private StoreMetrics storeMetrics;
+
+    @Value("${app.cache.users.max-size:10000}") private long maxSize;
+    @Value("${app.cache.users.ttl-seconds:300}") private long ttlSeconds;
+    // > 0 liga o overlay: loginCount vem de um cache curto e não derruba o DTO a cada login
+    @Value("${app.cache.users.login-overlay-ttl-ms:0}") private long loginOverlayTtlMs;
+
+    // Entradas são futures: a carga roda fora do lock do mapa (na thread de quem deu o miss) e quem
+    // pedir a mesma chave durante a carga espera o mesmo future em vez de ir aos bancos de novo
+    private AsyncCache<String, UserDTO> dtos;
+    private AsyncCache<String, Integer> loginCounts;
+
+    @PostConstruct
+    void init() {
+        dtos = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+        if (loginOverlayTtlMs > 0) {
+            loginCounts = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(Duration.ofMillis(loginOverlayTtlMs))
+                    .buildAsync();
+        }
+    }
+
+    public UserDTO get(String userId, Function<String, UserDTO> loader) {
+        // Resposta parcial (algum banco estourou o prazo) não entra no cache
+        UserDTO dto = load(dtos, userId, loader,
+                loaded -> loaded.getSavedIn() != null && loaded.getSavedIn().size() == ALL_STORES);
+        if (loginCounts == null) return dto;
+
+        // Sem Redis o overlay não guarda nada e fica o valor do DTO agregado
+        Integer count = load(loginCounts, userId,
+                id -> storeGuard.read(StoreMetrics.REDIS, "getLoginCount", () -> readLoginCount(id), () -> null),
+                Objects::nonNull);
+        return withLoginCount(dto, count != null ? count : dto.getLoginCount());
+    }
+
+    // Miss: instala um future vazio (o lock do mapa só dura isso), carrega fora dele e completa.
+    // Um invalidate() durante a carga remove o future: o resultado volta para quem esperava, mas não
+    // fica no cache. Também não fica se "cacheable" recusar ou se um flush de logins cruzou a carga
+    // (loginCount pode ter um delta a mais/a menos, ver LoginCounterBuffer).
+    private <V> V load(AsyncCache<String, V> cache, String userId, Function<String, V> loader, Predicate<V> cacheable) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> entry = cache.get(userId, (id, executor) -> mine);
+        if (entry != mine) return join(entry);
+
+        long flushVersion = loginCounter.version();
+        V loaded;
+        try {
+            loaded = loader.apply(userId);
+        } catch (RuntimeException | Error e) {
+            // Future falho sai do cache sozinho
+            mine.completeExceptionally(e);
+            throw e;
+        }
+        mine.complete(loaded);
+        if (!cacheable.test(loaded) || !loginCounter.unchangedSince(flushVersion)) {
+            cache.asMap().remove(userId, mine);
+        }
+        return loaded;
+    }
+
+    // Espera a carga de outra thread (limitada pelo prazo dos bancos, como a própria carga)
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error error) throw error;
+            throw e;
+        }
+    }
+
+    // --- INVALIDAÇÃO (local + demais instâncias) ---
+    public void invalidate(String userId) {
+        invalidateLocal(userId);
+        publish(DTO_PREFIX + userId);
+    }
+
+    // Vários usuários numa mensagem só (dto:a,b,c), p.ex. os vizinhos de um usuário removido
+    public void invalidate(Collection<String> userIds) {
+        userIds.forEach(this::invalidateLocal);
+        publish(DTO_PREFIX + String.join(",", userIds));
+    }
+
+    // Só local: as demais instâncias são avisadas pelo LoginCounterBuffer, no mesmo pipeline
+    // em que o delta chega ao Redis (assim o login não paga um PUBLISH a mais).
+    public void invalidateLoginCountLocal(String userId) {
+        if (loginCounts != null) {
+            loginCounts.synchronous().invalidate(userId);
+        } else {
+            dtos.synchronous().invalidate(userId);
+        }
+    }
+
+    // Chamado pelo listener do Redis (mensagens de qualquer instância, inclusive esta)
+    public void onInvalidation(String message) {
+        if (message.startsWith(LOGIN_PREFIX)) {
+            invalidateLoginCountLocal(message.substring(LOGIN_PREFIX.length()));
+        } else if (message.startsWith(DTO_PREFIX)) {
+            for (String userId : message.substring(DTO_PREFIX.length()).split(",")) invalidateLocal(userId);
+        }
+    }
+
+    private void invalidateLocal(String userId) {
+        dtos.synchronous().invalidate(userId);
+        if (loginCounts != null) loginCounts.synchronous().invalidate(userId);
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats s = dtos.synchronous().stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", dtos.synchronous().estimatedSize());
+        stats.put("hits", s.hitCount());
+        stats.put("misses", s.missCount());
+        stats.put("hitRate", s.hitRate());
+        stats.put("evictions", s.evictionCount());
+        stats.put("loginOverlay", loginCounts != null);
+        return stats;
+    }
+
+    private void publish(String message) {
+        try {
+            storeGuard.run(StoreMetrics.REDIS, "publish",
+                    () -> storeMetrics.run(StoreMetrics.REDIS, "publish", () -> redisTemplate.convertAndSend(CHANNEL, message)));
+        } catch (Exception e) {
+            System.err.println("⚠️ Falha ao publicar invalidação " + message + ": " + e.getMessage());
+        }
+    }
+
+    // GET + pendente repetidos se um flush cruzar a leitura (LoginCounterBuffer.read)
+    private Integer readLoginCount(String userId) {
+        return loginCounter.read(() -> {
+            String count = storeMetrics.record(StoreMetrics.REDIS, "getLoginCount",
+                    () -> redisTemplate.opsForValue().get("login_count:" + userId));
+            long stored = count != null ? Long.parseLong(count) : 0;
+            return (int) (stored + loginCounter.pending(userId));
+        });
+    }
+
+    // Cópia rasa para não alterar o DTO compartilhado no cache
+    private UserDTO withLoginCount(UserDTO cached, Integer count) {
+        UserDTO dto = new UserDTO();
+        dto.setUserId(cached.getUserId());
+        dto.setEmail(cached.getEmail());
+        dto.setAge(cached.getAge());
+        dto.setCountry(cached.getCountry());
+        dto.setSubscriptionType(cached.getSubscriptionType());
+        dto.setGenres(cached.getGenres());
+        dto.setFollowingIds(cached.getFollowingIds());
+        dto.setFollowersCount(cached.getFollowersCount());
+        dto.setFollowingCount(cached.getFollowingCount());
+        dto.setSavedIn(cached.getSavedIn());
+        dto.setLoginCount(count);
+        return dto;
+    }
+}
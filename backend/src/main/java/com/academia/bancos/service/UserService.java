@@ -1,18 +1,36 @@
 package com.academia.bancos.service;
 
+import com.academia.bancos.graph.GraphSnapshotService;
+import com.academia.bancos.metrics.StoreMetrics;
 import com.academia.bancos.model.document.UserProfileDoc;
 import com.academia.bancos.model.dto.UserDTO;
+import com.academia.bancos.model.dto.UserPageDTO;
+import com.academia.bancos.model.entity.OutboxEvent;
 import com.academia.bancos.model.entity.UserEntity;
 import com.academia.bancos.model.node.UserNode;
 import com.academia.bancos.repository.*;
+import com.academia.bancos.resilience.StoreGuard;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,71 +39,166 @@ public class UserService {
     @Autowired private UserRepositoryPG postgresRepo;
     @Autowired private UserRepositoryMongo mongoRepo;
     @Autowired private UserRepositoryNeo4j neo4jRepo;
+    @Autowired private UserGraphQueries graphQueries;
+    @Autowired private UserProfileQueries profileQueries;
+    @Autowired private GraphSnapshotService graphSnapshot;
     @Autowired private StringRedisTemplate redisTemplate;
+    @Autowired private UserNearCache nearCache;
+    // Carimbos dos ETags (GET condicional); toda escrita abaixo precisa mexer neles
+    @Autowired private UserVersions versions;
+    @Autowired private LoginCounterBuffer loginCounter;
+    @Autowired private CredentialCache credentialCache;
+    @Autowired private RedisKeyspace keyspace;
+    @Autowired private OutboxService outbox;
+    @Autowired private ProfileStatsService profileStats;
+    @Autowired private StoreMetrics storeMetrics;
+    // Bulkhead + circuit breaker + prazo por banco; escritas falham rápido, leituras degradam
+    @Autowired private StoreGuard storeGuard;
+
+    // Campo do DTO -> banco que o guarda (GET /api/users?fields=); userId vem de qualquer um
+    private static final Map<String, String> FIELD_STORES = Map.of(
+            "email", StoreMetrics.POSTGRES,
+            "age", StoreMetrics.MONGO, "country", StoreMetrics.MONGO, "genres", StoreMetrics.MONGO,
+            "subscriptionType", StoreMetrics.MONGO,
+            "loginCount", StoreMetrics.REDIS,
+            "followersCount", StoreMetrics.NEO4J, "followingCount", StoreMetrics.NEO4J);
+
+    // Banco que fornece a lista de ids quando mais de um é pedido (o Mongo já traz o perfil inteiro)
+    private static final List<String> SCAN_ORDER =
+            List.of(StoreMetrics.MONGO, StoreMetrics.POSTGRES, StoreMetrics.NEO4J, StoreMetrics.REDIS);
+
+    // "outbox": createUser/deleteUser só fazem o commit local; o resto é assíncrono
+    @Value("#{'${app.writes.mode:sync}' == 'outbox'}") private boolean outboxMode;
+
+    // Tamanho do chunk para o join em lote (IN no Postgres / MGET no Redis)
+    @Value("${app.users.batch-size:500}") private int batchSize;
+    @Value("${app.users.max-page-size:1000}") private int maxPageSize;
 
     // --- CREATE ---
-    @Transactional
+    @Transactional(timeoutString = "${app.store.tx-timeout-s:2}")
     public UserDTO createUser(UserDTO dto) {
         // 1. Postgres
         UserEntity entity = new UserEntity();
         entity.setUserId(dto.getUserId());
         entity.setEmail(dto.getEmail());
         entity.setPasswordHash(dto.getPassword());
-        postgresRepo.save(entity);
+        storeGuard.call(StoreMetrics.POSTGRES, "save", () -> postgresRepo.save(entity));
+
+        // Modo outbox: o evento entra no mesmo commit e Mongo/Neo4j/Redis são aplicados depois
+        if (outboxMode) {
+            outbox.enqueue(OutboxEvent.Type.USER_CREATED, dto.getUserId(), profilePayload(dto));
+            // Já muda ?source=postgres; o OutboxApplier anuncia de novo quando aplicar o resto
+            versions.announce(List.of(dto.getUserId()));
+            return dto;
+        }
 
         // 2. Mongo
         UserProfileDoc doc = new UserProfileDoc();
         doc.setUserId(dto.getUserId());
         doc.setAge(dto.getAge() != null ? dto.getAge() : 18);
         doc.setCountry(dto.getCountry() != null ? dto.getCountry() : "Brazil");
+        doc.setSubscriptionType(dto.getSubscriptionType());
         doc.setGenres(dto.getGenres() != null ? dto.getGenres() : new ArrayList<>());
-        mongoRepo.save(doc);
+        storeGuard.call(StoreMetrics.MONGO, "save", () -> mongoRepo.save(doc));
+        profileStats.record(List.of(doc), List.of());
 
         // 3. Neo4j
         UserNode node = new UserNode();
         node.setUserId(dto.getUserId());
-        neo4jRepo.save(node);
+        storeGuard.call(StoreMetrics.NEO4J, "save", () -> neo4jRepo.save(node));
 
-        // 4. Redis
-        redisTemplate.opsForValue().set("login_count:" + dto.getUserId(), "0");
+        // 4. Redis (dispensável: a leitura agregada cria o contador com SETNX se faltar)
+        storeGuard.call(StoreMetrics.REDIS, "set", () -> {
+            storeMetrics.run(StoreMetrics.REDIS, "set", () -> redisTemplate.opsForValue().set("login_count:" + dto.getUserId(), "0"));
+            keyspace.track(RedisKeyspace.LOGIN_COUNT, dto.getUserId());
+            return null;
+        }, () -> null);
 
+        // Usuário novo não estava no near-cache: ninguém publicou invalidação
+        versions.announce(List.of(dto.getUserId()));
         return dto;
     }
 
+    // Só o que os outros bancos precisam (sem senha)
+    private UserDTO profilePayload(UserDTO dto) {
+        UserDTO payload = new UserDTO();
+        payload.setUserId(dto.getUserId());
+        payload.setAge(dto.getAge() != null ? dto.getAge() : 18);
+        payload.setCountry(dto.getCountry() != null ? dto.getCountry() : "Brazil");
+        payload.setSubscriptionType(dto.getSubscriptionType());
+        payload.setGenres(dto.getGenres() != null ? dto.getGenres() : new ArrayList<>());
+        return payload;
+    }
+
     // --- READ AGGREGATED (IMPORTANTE PARA OS CARDS) ---
+    // Servido pelo near-cache; só vai aos bancos em caso de miss.
     public UserDTO getUserAggregated(String userId) {
+        return nearCache.get(userId, this::loadUserAggregated);
+    }
+
+    // Os quatro bancos são consultados em paralelo, cada um dentro do seu bulkhead e com seu prazo
+    // contado do disparo (o pior caso é o maior prazo, não a soma). Se um banco não responder a tempo
+    // (ou o breaker dele estiver aberto), devolve o que chegou e ele fica fora do savedIn.
+    private UserDTO loadUserAggregated(String userId) {
         UserDTO dto = new UserDTO();
         dto.setUserId(userId);
 
+        long submittedAt = System.nanoTime();
+        CompletableFuture<Optional<UserEntity>> pgFuture =
+                storeGuard.submit(StoreMetrics.POSTGRES, "findById", () -> postgresRepo.findById(userId));
+        CompletableFuture<Optional<UserProfileDoc>> mongoFuture =
+                storeGuard.submit(StoreMetrics.MONGO, "findById", () -> mongoRepo.findById(userId));
+        // GET + pendente repetidos se um flush cruzar a leitura (LoginCounterBuffer.read)
+        CompletableFuture<String> redisFuture = storeGuard.submit(StoreMetrics.REDIS, "getLoginCount", () -> loginCounter.read(() -> storeMetrics.record(StoreMetrics.REDIS, "getLoginCount", () -> {
+            String count = redisTemplate.opsForValue().get("login_count:" + userId);
+            if (count == null) {
+                // setIfAbsent para não sobrescrever um INCRBY do flush que chegue no meio
+                if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent("login_count:" + userId, "0"))) {
+                    keyspace.track(RedisKeyspace.LOGIN_COUNT, userId);
+                }
+                count = "0";
+            }
+            return String.valueOf(Long.parseLong(count) + loginCounter.pending(userId));
+        })));
+        CompletableFuture<Optional<UserGraphQueries.Degree>> neo4jFuture =
+                storeGuard.submit(StoreMetrics.NEO4J, "degree", () -> graphQueries.degree(userId));
+
         // Inicializa a lista para não dar erro
         List<String> savedIn = new ArrayList<>();
 
         // A. Postgres
-        Optional<UserEntity> pgUser = postgresRepo.findById(userId);
-        if (pgUser.isPresent()) {
+        Optional<UserEntity> pgUser = storeGuard.await(pgFuture, StoreMetrics.POSTGRES, "findById", submittedAt);
+        if (pgUser != null && pgUser.isPresent()) {
             dto.setEmail(pgUser.get().getEmail());
             savedIn.add("Postgres");
         }
 
         // B. Mongo (Dados ricos)
-        Optional<UserProfileDoc> mongoUser = mongoRepo.findById(userId);
-        if (mongoUser.isPresent()) {
+        Optional<UserProfileDoc> mongoUser = storeGuard.await(mongoFuture, StoreMetrics.MONGO, "findById", submittedAt);
+        if (mongoUser != null && mongoUser.isPresent()) {
             UserProfileDoc p = mongoUser.get();
             dto.setAge(p.getAge());
             dto.setCountry(p.getCountry());
+            dto.setSubscriptionType(p.getSubscriptionType());
             dto.setGenres(p.getGenres());
             savedIn.add("MongoDB");
         }
 
-        // C. Redis (Logins)
-        String count = redisTemplate.opsForValue().get("login_count:" + userId);
+        // C. Redis (Logins); sem Redis, ao menos os logins ainda não enviados
+        String count = storeGuard.await(redisFuture, StoreMetrics.REDIS, "getLoginCount", submittedAt);
         if (count != null) {
             dto.setLoginCount(Integer.parseInt(count));
             savedIn.add("Redis");
         } else {
-            dto.setLoginCount(0);
-            redisTemplate.opsForValue().set("login_count:" + userId, "0");
-            savedIn.add("Redis");
+            dto.setLoginCount((int) loginCounter.pending(userId));
+        }
+
+        // D. Neo4j (Contadores de grau, leitura O(1) no nó)
+        Optional<UserGraphQueries.Degree> degree = storeGuard.await(neo4jFuture, StoreMetrics.NEO4J, "degree", submittedAt);
+        if (degree != null && degree.isPresent()) {
+            dto.setFollowersCount(degree.get().followers());
+            dto.setFollowingCount(degree.get().following());
+            savedIn.add("Neo4j");
         }
 
         dto.setSavedIn(savedIn);
@@ -94,67 +207,368 @@ public class UserService {
 
     // --- READ ALL ---
     public List<UserDTO> getAllUsers(String source) {
-        return mongoRepo.findAll().stream().map(doc -> {
+        return getAllUsers(source, null);
+    }
+
+    // ?source= (um banco) e/ou ?fields= (lista de campos do DTO) escolhem quais bancos são consultados.
+    // Sem nenhum dos dois, a listagem completa (Mongo + Postgres + Redis) de sempre.
+    public List<UserDTO> getAllUsers(String source, String fields) {
+        if (source == null && fields == null) {
+            return getAllUsersJoined();
+        }
+        Set<String> wanted = selectedFields(source, fields);
+        Set<String> stores = new LinkedHashSet<>();
+        wanted.forEach(field -> stores.add(FIELD_STORES.get(field)));
+        // Só userId: qualquer banco serve; o Postgres (cadastro) é a referência
+        if (stores.isEmpty()) stores.add(source != null ? source.toLowerCase() : StoreMetrics.POSTGRES);
+
+        // Quem dá a lista de ids é o primeiro banco pedido nesta ordem; os demais entram por chunk
+        String driver = SCAN_ORDER.stream().filter(stores::contains).findFirst().orElseThrow();
+        List<UserDTO> result = scan(driver);
+        for (int from = 0; from < result.size(); from += batchSize) {
+            List<UserDTO> chunk = result.subList(from, Math.min(from + batchSize, result.size()));
+            for (String store : stores) {
+                if (!store.equals(driver) || store.equals(StoreMetrics.REDIS)) join(store, chunk, store.equals(driver));
+            }
+        }
+        result.forEach(dto -> project(dto, wanted));
+
+        System.out.println("📊 getAllUsers(source=" + source + ", fields=" + fields + "): " + result.size()
+                + " usuários, bancos " + stores);
+        return result;
+    }
+
+    // Join em lote: 1 leitura no Mongo + por chunk um IN no Postgres e um MGET no Redis
+    // (antes eram 2N+1 round trips, um findById e um GET por usuário).
+    private List<UserDTO> getAllUsersJoined() {
+        List<UserProfileDoc> docs = storeGuard.call(StoreMetrics.MONGO, "findAll", () -> mongoRepo.findAll());
+        int roundTrips = 1;
+
+        List<UserDTO> result = new ArrayList<>(docs.size());
+        for (int from = 0; from < docs.size(); from += batchSize) {
+            List<UserProfileDoc> chunk = docs.subList(from, Math.min(from + batchSize, docs.size()));
+            result.addAll(assembleChunk(chunk));
+            roundTrips += 2;
+        }
+
+        System.out.println("📊 getAllUsers: " + result.size() + " usuários em " + roundTrips
+                + " round trips (chunk=" + batchSize + ")");
+        return result;
+    }
+
+    // Campos pedidos (sem userId, que sempre vem); source sozinho = todos os campos daquele banco
+    private static Set<String> selectedFields(String source, String fields) {
+        String store = source != null ? source.toLowerCase() : null;
+        if (store != null && !FIELD_STORES.containsValue(store)) {
+            throw new IllegalArgumentException("source inválido: " + source + " (postgres, mongo, redis, neo4j)");
+        }
+        Set<String> wanted = new LinkedHashSet<>();
+        if (fields == null) {
+            FIELD_STORES.forEach((field, owner) -> { if (owner.equals(store)) wanted.add(field); });
+            return wanted;
+        }
+        for (String raw : fields.split(",")) {
+            String field = raw.trim();
+            if (field.isEmpty() || field.equals("userId")) continue;
+            String owner = FIELD_STORES.get(field);
+            if (owner == null) throw new IllegalArgumentException("Campo desconhecido: " + field);
+            if (store != null && !owner.equals(store)) {
+                throw new IllegalArgumentException("Campo " + field + " não vem de " + store);
+            }
+            wanted.add(field);
+        }
+        return wanted;
+    }
+
+    // Lista base (userId + campos do banco). Aqui o banco é obrigatório: fora do ar -> 503.
+    private List<UserDTO> scan(String store) {
+        List<UserDTO> dtos = new ArrayList<>();
+        switch (store) {
+            case StoreMetrics.MONGO -> storeGuard.call(StoreMetrics.MONGO, "findAll", () -> mongoRepo.findAll()).forEach(doc -> {
+                UserDTO dto = new UserDTO();
+                dto.setUserId(doc.getUserId());
+                dto.setAge(doc.getAge());
+                dto.setCountry(doc.getCountry());
+                dto.setSubscriptionType(doc.getSubscriptionType());
+                dto.setGenres(doc.getGenres());
+                dtos.add(dto);
+            });
+            case StoreMetrics.POSTGRES -> storeGuard.call(StoreMetrics.POSTGRES, "findAll", () -> postgresRepo.findAll()).forEach(pg -> {
+                UserDTO dto = new UserDTO();
+                dto.setUserId(pg.getUserId());
+                dto.setEmail(pg.getEmail());
+                dtos.add(dto);
+            });
+            case StoreMetrics.NEO4J -> storeGuard.call(StoreMetrics.NEO4J, "forEachDegree", () -> graphQueries.forEachDegree((id, degree) -> {
+                UserDTO dto = new UserDTO();
+                dto.setUserId(id);
+                dto.setFollowersCount(degree.followers());
+                dto.setFollowingCount(degree.following());
+                dtos.add(dto);
+            }));
+            // Redis: ids do registro do keyspace; os contadores vêm no join (pipeline por chunk)
+            default -> storeGuard.call(StoreMetrics.REDIS, "members", () -> keyspace.members(RedisKeyspace.LOGIN_COUNT)).forEach(id -> {
+                UserDTO dto = new UserDTO();
+                dto.setUserId(id);
+                dtos.add(dto);
+            });
+        }
+        return dtos;
+    }
+
+    // Completa um chunk com os campos de um banco. Opcional (required = false) degrada como o assembleChunk.
+    private void join(String store, List<UserDTO> chunk, boolean required) {
+        List<String> ids = chunk.stream().map(UserDTO::getUserId).collect(Collectors.toList());
+        switch (store) {
+            case StoreMetrics.POSTGRES -> {
+                Map<String, String> emails = new HashMap<>();
+                storeGuard.read(StoreMetrics.POSTGRES, "findAllById", () -> postgresRepo.findAllById(ids), List::<UserEntity>of)
+                        .forEach(pg -> emails.put(pg.getUserId(), pg.getEmail()));
+                chunk.forEach(dto -> dto.setEmail(emails.get(dto.getUserId())));
+            }
+            case StoreMetrics.NEO4J -> {
+                Map<String, UserGraphQueries.Degree> degrees = storeGuard.read(StoreMetrics.NEO4J, "degrees",
+                        () -> graphQueries.degrees(ids), Map::of);
+                chunk.forEach(dto -> {
+                    UserGraphQueries.Degree degree = degrees.get(dto.getUserId());
+                    if (degree == null) return;
+                    dto.setFollowersCount(degree.followers());
+                    dto.setFollowingCount(degree.following());
+                });
+            }
+            case StoreMetrics.REDIS -> {
+                // Um GET por usuário, todos no mesmo pipeline: um round trip por chunk
+                Supplier<List<Object>> pipelined = () -> storeMetrics.record(StoreMetrics.REDIS, "pipelinedGet",
+                        () -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                            StringRedisConnection conn = (StringRedisConnection) connection;
+                            ids.forEach(id -> conn.get("login_count:" + id));
+                            return null;
+                        }));
+                int[] counts = loginCounts(ids, () -> required
+                        ? storeGuard.call(StoreMetrics.REDIS, "pipelinedGet", pipelined)
+                        : storeGuard.read(StoreMetrics.REDIS, "pipelinedGet", pipelined, () -> null));
+                for (int i = 0; i < chunk.size(); i++) chunk.get(i).setLoginCount(counts[i]);
+            }
+            default -> throw new IllegalStateException("Join não suportado: " + store);
+        }
+    }
+
+    // Zera os campos não pedidos (o banco consultado pode trazer mais do que o fields=)
+    private static void project(UserDTO dto, Set<String> wanted) {
+        if (!wanted.contains("email")) dto.setEmail(null);
+        if (!wanted.contains("age")) dto.setAge(null);
+        if (!wanted.contains("country")) dto.setCountry(null);
+        if (!wanted.contains("genres")) dto.setGenres(null);
+        if (!wanted.contains("subscriptionType")) dto.setSubscriptionType(null);
+        if (!wanted.contains("loginCount")) dto.setLoginCount(null);
+        if (!wanted.contains("followersCount")) dto.setFollowersCount(null);
+        if (!wanted.contains("followingCount")) dto.setFollowingCount(null);
+    }
+
+    // --- READ PAGE (keyset em userId) ---
+    // Uma página = range no Mongo + IN no Postgres + um MGET; memória limitada ao tamanho da página.
+    public UserPageDTO getUsersPage(String after, int limit) {
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        List<UserProfileDoc> docs = storeGuard.call(StoreMetrics.MONGO, "findByUserIdGreaterThan",
+                () -> mongoRepo.findByUserIdGreaterThan(after != null ? after : "", PageRequest.of(0, size, Sort.by("userId"))));
+        if (docs.isEmpty()) {
+            return new UserPageDTO(List.of(), null);
+        }
+
+        // Postgres vai por IN na PK (e não por range) porque a collation do texto no PG
+        // pode ordenar diferente do _id binário do Mongo e perder ids na borda da página.
+        List<UserDTO> items = assembleChunk(docs);
+        String last = docs.get(docs.size() - 1).getUserId();
+        return new UserPageDTO(items, docs.size() < size ? null : last);
+    }
+
+    // --- SEARCH (filtro no Mongo pelos índices de UserProfileDoc) ---
+    // Uma consulta indexada com limite + o mesmo join em lote da listagem (IN no Postgres, MGET no Redis)
+    public List<UserDTO> searchUsers(UserProfileQueries.Filter filter, int limit) {
+        int size = searchLimit(filter, limit);
+        List<UserProfileDoc> docs = storeGuard.call(StoreMetrics.MONGO, "search", () -> profileQueries.search(filter, size));
+        return docs.isEmpty() ? List.of() : assembleChunk(docs);
+    }
+
+    // Só ids: projeção coberta (sem ler documento) quando o filtro não usa gênero
+    public List<String> searchUserIds(UserProfileQueries.Filter filter, int limit) {
+        int size = searchLimit(filter, limit);
+        return storeGuard.call(StoreMetrics.MONGO, "searchIds", () -> profileQueries.searchIds(filter, size));
+    }
+
+    public Map<String, Object> explainSearch(UserProfileQueries.Filter filter, int limit, boolean idsOnly) {
+        int size = searchLimit(filter, limit);
+        return storeGuard.call(StoreMetrics.MONGO, "explain", () -> profileQueries.explain(filter, size, idsOnly));
+    }
+
+    // Sem filtro a consulta viraria COLLSCAN: para percorrer todos existe o keyset (?limit=&after=)
+    private int searchLimit(UserProfileQueries.Filter filter, int limit) {
+        if (filter.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um filtro (country, genre, subscriptionType, minAge, maxAge)");
+        }
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    // --- STREAM ALL ---
+    // Percorre todas as páginas entregando cada DTO assim que montado (usado pelo NDJSON)
+    public void streamAllUsers(Consumer<UserDTO> sink) {
+        String cursor = null;
+        do {
+            UserPageDTO page = getUsersPage(cursor, batchSize);
+            page.getItems().forEach(sink);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+    }
+
+    // Monta os DTOs de um chunk de perfis: um findAllById no Postgres + um MGET no Redis.
+    // O Mongo é a base da listagem; sem Postgres/Redis (prazo ou breaker) a lista sai sem email/contador do Redis.
+    private List<UserDTO> assembleChunk(List<UserProfileDoc> chunk) {
+        List<String> ids = chunk.stream().map(UserProfileDoc::getUserId).collect(Collectors.toList());
+
+        Map<String, String> emails = new HashMap<>();
+        storeGuard.read(StoreMetrics.POSTGRES, "findAllById", () -> postgresRepo.findAllById(ids), List::<UserEntity>of)
+                .forEach(pg -> emails.put(pg.getUserId(), pg.getEmail()));
+
+        List<String> keys = ids.stream().map(id -> "login_count:" + id).collect(Collectors.toList());
+        int[] counts = loginCounts(ids, () -> storeGuard.read(StoreMetrics.REDIS, "multiGet",
+                () -> storeMetrics.record(StoreMetrics.REDIS, "multiGet", () -> redisTemplate.opsForValue().multiGet(keys)), () -> null));
+
+        List<UserDTO> dtos = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            UserProfileDoc doc = chunk.get(i);
             UserDTO dto = new UserDTO();
             dto.setUserId(doc.getUserId());
             dto.setAge(doc.getAge());
             dto.setCountry(doc.getCountry());
+            dto.setSubscriptionType(doc.getSubscriptionType());
             dto.setGenres(doc.getGenres());
+            dto.setEmail(emails.get(doc.getUserId()));
+            dto.setLoginCount(counts[i]);
+            dtos.add(dto);
+        }
+        return dtos;
+    }
 
-            // Busca dados complementares
-            postgresRepo.findById(doc.getUserId()).ifPresent(pg -> dto.setEmail(pg.getEmail()));
-            String count = redisTemplate.opsForValue().get("login_count:" + doc.getUserId());
-            dto.setLoginCount(count != null ? Integer.parseInt(count) : 0);
-
-            return dto;
-        }).collect(Collectors.toList());
+    // login_count:* de um chunk (MGET/pipeline, null = Redis fora) + o que ainda não foi enviado,
+    // repetidos se um flush cruzar a leitura (LoginCounterBuffer.read)
+    private int[] loginCounts(List<String> ids, Supplier<List<?>> fetch) {
+        return loginCounter.read(() -> {
+            List<?> stored = fetch.get();
+            int[] counts = new int[ids.size()];
+            for (int i = 0; i < counts.length; i++) {
+                Object count = stored != null ? stored.get(i) : null;
+                counts[i] = (int) ((count != null ? Long.parseLong(count.toString()) : 0) + loginCounter.pending(ids.get(i)));
+            }
+            return counts;
+        });
     }
 
     // --- UPDATE ---
     public UserDTO updateUser(String id, UserDTO dto) {
-        postgresRepo.findById(id).ifPresent(u -> {
+        storeGuard.run(StoreMetrics.POSTGRES, "update", () -> postgresRepo.findById(id).ifPresent(u -> {
             if (dto.getEmail() != null && !dto.getEmail().isEmpty()) u.setEmail(dto.getEmail());
             if (dto.getPassword() != null && !dto.getPassword().isEmpty()) u.setPasswordHash(dto.getPassword());
             postgresRepo.save(u);
-        });
+        }));
 
-        mongoRepo.findById(id).ifPresent(d -> {
+        storeGuard.run(StoreMetrics.MONGO, "update", () -> mongoRepo.findById(id).ifPresent(d -> {
+            UserProfileDoc before = new UserProfileDoc();
+            before.setAge(d.getAge());
+            before.setCountry(d.getCountry());
+            before.setGenres(d.getGenres());
             if (dto.getAge() != null) d.setAge(dto.getAge());
             if (dto.getCountry() != null) d.setCountry(dto.getCountry());
+            if (dto.getSubscriptionType() != null) d.setSubscriptionType(dto.getSubscriptionType());
             if (dto.getGenres() != null) d.setGenres(dto.getGenres());
             mongoRepo.save(d);
-        });
+            profileStats.record(List.of(d), List.of(before));
+        }));
 
+        nearCache.invalidate(id);
+        credentialCache.invalidateUser(id);
+        versions.touch(id);
         return getUserAggregated(id);
     }
 
     // --- DELETE ---
-    @Transactional
+    @Transactional(timeoutString = "${app.store.tx-timeout-s:2}")
     public void deleteUser(String userId) {
-        if (postgresRepo.existsById(userId)) postgresRepo.deleteById(userId);
-        if (mongoRepo.existsById(userId)) mongoRepo.deleteById(userId);
-        if (neo4jRepo.existsById(userId)) neo4jRepo.deleteById(userId);
-        redisTemplate.delete("login_count:" + userId);
-        redisTemplate.delete("session:" + userId);
-        redisTemplate.delete("last_login:" + userId);
+        storeGuard.run(StoreMetrics.POSTGRES, "delete", () -> {
+            if (postgresRepo.existsById(userId)) postgresRepo.deleteById(userId);
+        });
+        if (outboxMode) {
+            outbox.enqueue(OutboxEvent.Type.USER_DELETED, userId, null);
+            nearCache.invalidate(userId);
+            credentialCache.invalidateUser(userId);
+            versions.touch(userId);
+            versions.touchGraph();
+            return;
+        }
+        storeGuard.run(StoreMetrics.MONGO, "delete", () -> mongoRepo.findById(userId).ifPresent(d -> {
+            mongoRepo.deleteById(userId);
+            profileStats.record(List.of(), List.of(d));
+        }));
+        List<String> neighbours = storeGuard.call(StoreMetrics.NEO4J, "deleteWithCounters", () -> neo4jRepo.deleteWithCounters(userId));
+        graphSnapshot.removeNode(userId);
+        // Chaves que sobrarem com o Redis fora ficam órfãs até o próximo purge do seed
+        storeGuard.call(StoreMetrics.REDIS, "unlink", () -> {
+            storeMetrics.run(StoreMetrics.REDIS, "unlink",
+                    () -> redisTemplate.unlink(RedisKeyspace.userKeys(userId)));
+            keyspace.untrackAll(userId);
+            return null;
+        }, () -> null);
+        nearCache.invalidate(userId);
+        credentialCache.invalidateUser(userId);
+        versions.touch(userId);
+        versions.touchGraph();
+        // Quem seguia ou era seguido pelo removido teve followersCount/followingCount descontado
+        if (!neighbours.isEmpty()) {
+            nearCache.invalidate(neighbours);
+            versions.touch(neighbours.toArray(String[]::new));
+        }
     }
 
     // --- RELATIONSHIPS ---
     public void createFollowRelationship(String followerId, String followedId) {
-        Optional<UserNode> f1 = neo4jRepo.findById(followerId);
-        Optional<UserNode> f2 = neo4jRepo.findById(followedId);
-        if(f1.isPresent() && f2.isPresent()) {
-            UserNode follower = f1.get();
-            follower.follows(f2.get());
-            neo4jRepo.save(follower);
-        }
+        boolean linked = storeGuard.call(StoreMetrics.NEO4J, "createRelationship", () -> neo4jRepo.createRelationship(followerId, followedId));
+        // Sem um dos nós o MERGE não cria nada: o snapshot também não ganha aresta
+        if (!linked) return;
+        graphSnapshot.addEdge(followerId, followedId);
+        nearCache.invalidate(followerId);
+        nearCache.invalidate(followedId);
+        versions.touch(followerId, followedId);
+        versions.touchGraph();
+    }
+
+    // Follow em lote: um único UNWIND/MERGE para todos os alvos
+    public long createFollowRelationships(String followerId, List<String> followedIds) {
+        List<String> targets = followedIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (targets.isEmpty()) return 0;
+        // Só os alvos que o MATCH encontrou têm aresta: os inexistentes não entram no snapshot
+        List<String> matched = storeGuard.call(StoreMetrics.NEO4J, "createRelationships", () -> neo4jRepo.createRelationships(followerId, targets));
+        if (matched.isEmpty()) return 0;
+        matched.forEach(t -> graphSnapshot.addEdge(followerId, t));
+        nearCache.invalidate(followerId);
+        nearCache.invalidate(matched);
+        versions.touch(followerId);
+        versions.touch(matched.toArray(String[]::new));
+        versions.touchGraph();
+        return matched.size();
     }
 
     public void removeFollowRelationship(String followerId, String followedId) {
-        neo4jRepo.deleteRelationship(followerId, followedId);
+        storeGuard.run(StoreMetrics.NEO4J, "deleteRelationship", () -> neo4jRepo.deleteRelationship(followerId, followedId));
+        graphSnapshot.removeEdge(followerId, followedId);
+        nearCache.invalidate(followerId);
+        nearCache.invalidate(followedId);
+        versions.touch(followerId, followedId);
+        versions.touchGraph();
     }
 
+    // Write-behind: o INCR vai ao Redis no próximo flush do LoginCounterBuffer
     public void incrementLoginCount(String userId) {
-        redisTemplate.opsForValue().increment("login_count:" + userId);
+        loginCounter.increment(userId);
+        nearCache.invalidateLoginCountLocal(userId);
+        versions.touch(userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+package com.academia.bancos.service;
+
+import com.academia.bancos.metrics.StoreMetrics;
+import com.academia.bancos.resilience.StoreGuard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carimbos de versão (em memória, por instância) para os ETags de GET /api/users, /api/users/{id}
+ * e /api/network/{id}: o If-None-Match é comparado com o carimbo atual e o 304 sai sem tocar em banco.
+ *
+ * Escritas do UserService incrementam localmente (depois do commit); as das outras instâncias chegam pelo canal de
+ * invalidação do near-cache (dto:/login:) ou por version: (escritas que não invalidam o near-cache).
+ * O epoch aleatório entra em todo ETag: depois de um restart, ou em outra instância, nenhum ETag antigo bate.
+ */
+@Component
+public class UserVersions {
+
+    public static final String VERSION_PREFIX = "version:";
+    private static final String ALL = "*";
+
+    @Autowired private StringRedisTemplate redisTemplate;
+    @Autowired private StoreGuard storeGuard;
+    @Autowired private StoreMetrics storeMetrics;
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<String, Long> users = new ConcurrentHashMap<>();
+    // Muda a cada escrita de qualquer usuário (listagem) / de qualquer aresta ou nó (grafo)
+    private final AtomicLong list = new AtomicLong();
+    private final AtomicLong graph = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+
+    // --- ESCRITAS LOCAIS ---
+    // Dentro de @Transactional o carimbo só muda depois do commit: antes disso um GET levaria o ETag
+    // novo com o dado velho do Postgres e ficaria com ele no cache do cliente.
+    public void touch(String... userIds) {
+        afterCommit(() -> {
+            for (String userId : userIds) bump(userId);
+        });
+    }
+
+    public void touchGraph() {
+        afterCommit(graph::incrementAndGet);
+    }
+
+    public void touchAll() {
+        afterCommit(this::bumpAll);
+    }
+
+    // Local + demais instâncias, para escritas que não publicam invalidação do near-cache
+    // (criação, lotes do outbox, carga em lote). ids == null: todos.
+    public void announce(Collection<String> userIds) {
+        afterCommit(() -> {
+            if (userIds == null) {
+                bumpAll();
+            } else {
+                userIds.forEach(this::bump);
+                graph.incrementAndGet();
+            }
+            publish(VERSION_PREFIX + (userIds == null ? ALL : String.join(",", userIds)));
+        });
+    }
+
+    // Chamado pelo listener do Redis (mensagens de qualquer instância, inclusive esta)
+    public void onInvalidation(String message) {
+        if (message.startsWith(UserNearCache.DTO_PREFIX)) {
+            // update, delete e follow/unfollow invalidam o DTO; o grafo pode ter mudado junto
+            for (String id : message.substring(UserNearCache.DTO_PREFIX.length()).split(",")) bump(id);
+            graph.incrementAndGet();
+        } else if (message.startsWith(UserNearCache.LOGIN_PREFIX)) {
+            bump(message.substring(UserNearCache.LOGIN_PREFIX.length()));
+        } else if (message.startsWith(VERSION_PREFIX)) {
+            String ids = message.substring(VERSION_PREFIX.length());
+            if (ids.equals(ALL)) {
+                bumpAll();
+                return;
+            }
+            for (String id : ids.split(",")) bump(id);
+            graph.incrementAndGet();
+        }
+    }
+
+    // --- ETAGS (fraco: o corpo ainda passa pelo gzip do Tomcat) ---
+    public String userTag(String userId, String format) {
+        return tag("u" + users.getOrDefault(userId, 0L) + "." + generation.get(), format);
+    }
+
+    public String listTag(String format) {
+        return tag("l" + list.get(), format);
+    }
+
+    public String graphTag(String format) {
+        return tag("g" + graph.get(), format);
+    }
+
+    // If-None-Match pode trazer vários ETags separados por vírgula, ou "*"
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) return false;
+        String wanted = strip(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.equals(ALL) || strip(c).equals(wanted)) return true;
+        }
+        return false;
+    }
+
+    // ================= INTERNOS =================
+
+    private void bump(String userId) {
+        users.merge(userId, 1L, Long::sum);
+        list.incrementAndGet();
+    }
+
+    // Sobe a geração em vez de percorrer o mapa (carimbo por usuário = versão.geração)
+    private void bumpAll() {
+        generation.incrementAndGet();
+        list.incrementAndGet();
+        graph.incrementAndGet();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // O formato (json/cbor) entra no ETag: mesma URL, representações diferentes
+    private String tag(String version, String format) {
+        return "W/\"" + epoch + "-" + version + "-" + format + "\"";
+    }
+
+    private static String strip(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private void publish(String message) {
+        try {
+            storeGuard.run(StoreMetrics.REDIS, "publish",
+                    () -> storeMetrics.run(StoreMetrics.REDIS, "publish", () -> redisTemplate.convertAndSend(UserNearCache.CHANNEL, message)));
+        } catch (Exception e) {
+            System.err.println("⚠️ Falha ao publicar versão " + message + ": " + e.getMessage());
+        }
+    }
+}
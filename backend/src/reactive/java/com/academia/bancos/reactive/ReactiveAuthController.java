@@ -0,0 +1,41 @@
+package com.academia.bancos.reactive;
+
+import com.academia.bancos.controller.AuthController;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/auth")
+@CrossOrigin(origins = "http://localhost:4200")
+@Profile("reactive")
+public class ReactiveAuthController {
+
+    @Autowired private ReactiveUserService userService;
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<?>> login(@RequestBody AuthController.LoginRequest request) {
+        String emailParaUsar = request.email != null ? request.email : request.username;
+
+        if (emailParaUsar == null || request.password == null) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("message", "Dados incompletos")));
+        }
+
+        return userService.findCredentials(emailParaUsar)
+                .filter(user -> user.passwordHash() != null && user.passwordHash().equals(request.password))
+                .flatMap(user -> userService.recordLogin(user.userId()).then(Mono.fromSupplier(() -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("token", "fake-jwt-" + user.userId());
+                    response.put("userId", user.userId());
+                    response.put("email", user.email());
+                    return ResponseEntity.<Object>ok(response);
+                })))
+                .<ResponseEntity<?>>map(r -> r)
+                .defaultIfEmpty(ResponseEntity.status(401).body(Map.of("message", "Credenciais inválidas")));
+    }
+}
@@ -0,0 +1,22 @@
+package com.academia.bancos.reactive;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Variante reativa da API (perfil "reactive"): WebFlux + R2DBC, Mongo reativo, Lettuce reativo e
+ * driver reativo do Neo4j. Escaneia só este pacote, então nenhum bean bloqueante do BancosApplication
+ * (UserService, repositórios JPA/Mongo/Neo4j, pools do StoreExecutor) é criado.
+ *
+ * mvn -Preactive spring-boot:run
+ */
+@SpringBootApplication
+@Profile("reactive")
+public class ReactiveBancosApplication {
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveBancosApplication.class)
+                .profiles("reactive")
+                .run(args);
+    }
+}
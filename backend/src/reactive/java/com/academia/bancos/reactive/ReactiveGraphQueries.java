@@ -0,0 +1,107 @@
+package com.academia.bancos.reactive;
+
+import com.academia.bancos.repository.UserGraphQueries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.neo4j.core.ReactiveNeo4jClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Mesmo Cypher do UserGraphQueries / UserRepositoryNeo4j, pelo ReactiveNeo4jClient.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveGraphQueries {
+
+    @Autowired private ReactiveNeo4jClient neo4jClient;
+
+    public Mono<Void> createNode(String userId) {
+        return neo4jClient.query("MERGE (:User {userId: $userId})")
+                .bind(userId).to("userId")
+                .run().then();
+    }
+
+    public Mono<Boolean> exists(String userId) {
+        return neo4jClient.query("MATCH (u:User {userId: $userId}) RETURN count(u) > 0 AS found")
+                .bind(userId).to("userId")
+                .fetchAs(Boolean.class)
+                .mappedBy((types, record) -> record.get("found").asBoolean())
+                .one();
+    }
+
+    public Mono<UserGraphQueries.Degree> degree(String userId) {
+        return neo4jClient.query(
+                        "MATCH (u:User {userId: $userId}) " +
+                        "RETURN coalesce(u.followersCount, 0) AS followers, coalesce(u.followingCount, 0) AS following")
+                .bind(userId).to("userId")
+                .fetchAs(UserGraphQueries.Degree.class)
+                .mappedBy((types, record) -> new UserGraphQueries.Degree(record.get("followers").asLong(), record.get("following").asLong()))
+                .one();
+    }
+
+    public Flux<UserGraphQueries.Edge> egoEdges(String userId, int depth, int limit) {
+        int hops = Math.max(1, Math.min(depth, UserGraphQueries.MAX_DEPTH));
+        String cypher =
+                "MATCH (me:User {userId: $userId}) " +
+                "CALL { WITH me MATCH p = (me)-[:FOLLOWS*1.." + hops + "]->(:User) RETURN p LIMIT $limit } " +
+                "UNWIND relationships(p) AS r " +
+                "RETURN DISTINCT startNode(r).userId AS source, endNode(r).userId AS target";
+        return neo4jClient.query(cypher)
+                .bind(userId).to("userId")
+                .bind(limit).to("limit")
+                .fetchAs(UserGraphQueries.Edge.class)
+                .mappedBy((types, record) -> new UserGraphQueries.Edge(record.get("source").asString(), record.get("target").asString()))
+                .all();
+    }
+
+    public Mono<Void> createRelationship(String followerId, String followedId) {
+        return neo4jClient.query(
+                        "MATCH (a:User {userId: $followerId}) MATCH (b:User {userId: $followedId}) MERGE (a)-[:FOLLOWS]->(b) " +
+                        "ON CREATE SET a.followingCount = coalesce(a.followingCount, 0) + 1, " +
+                        "              b.followersCount = coalesce(b.followersCount, 0) + 1")
+                .bind(followerId).to("followerId")
+                .bind(followedId).to("followedId")
+                .run().then();
+    }
+
+    public Mono<Long> createRelationships(String followerId, List<String> followedIds) {
+        return neo4jClient.query(
+                        "MATCH (a:User {userId: $followerId}) " +
+                        "UNWIND $followedIds AS followedId " +
+                        "MATCH (b:User {userId: followedId}) " +
+                        "MERGE (a)-[:FOLLOWS]->(b) " +
+                        "ON CREATE SET a.followingCount = coalesce(a.followingCount, 0) + 1, " +
+                        "              b.followersCount = coalesce(b.followersCount, 0) + 1 " +
+                        "RETURN count(b) AS created")
+                .bind(followerId).to("followerId")
+                .bind(followedIds).to("followedIds")
+                .fetchAs(Long.class)
+                .mappedBy((types, record) -> record.get("created").asLong())
+                .one()
+                .defaultIfEmpty(0L);
+    }
+
+    public Mono<Void> deleteRelationship(String followerId, String followedId) {
+        return neo4jClient.query(
+                        "MATCH (a:User {userId: $followerId})-[r:FOLLOWS]->(b:User {userId: $followedId}) DELETE r " +
+                        "SET a.followingCount = coalesce(a.followingCount, 1) - 1, " +
+                        "    b.followersCount = coalesce(b.followersCount, 1) - 1")
+                .bind(followerId).to("followerId")
+                .bind(followedId).to("followedId")
+                .run().then();
+    }
+
+    public Mono<Void> deleteWithCounters(String userId) {
+        return neo4jClient.query(
+                        "MATCH (u:User {userId: $userId}) " +
+                        "CALL { WITH u MATCH (u)-[:FOLLOWS]->(f:User) SET f.followersCount = coalesce(f.followersCount, 1) - 1 } " +
+                        "CALL { WITH u MATCH (f:User)-[:FOLLOWS]->(u) SET f.followingCount = coalesce(f.followingCount, 1) - 1 } " +
+                        "DETACH DELETE u")
+                .bind(userId).to("userId")
+                .run().then();
+    }
+}
@@ -0,0 +1,60 @@
+package com.academia.bancos.reactive;
+
+import com.academia.bancos.controller.NetworkController;
+import com.academia.bancos.metrics.StoreMetrics;
+import com.academia.bancos.repository.UserGraphQueries;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/network")
+@CrossOrigin(origins = "http://localhost:4200")
+@Profile("reactive")
+public class ReactiveNetworkController {
+
+    @Autowired private ReactiveGraphQueries graph;
+    @Autowired private ReactiveStoreCalls stores;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Value("${app.network.max-limit:1000}")
+    private int maxLimit;
+
+    // GET /api/network/{id}?depth=1..3&limit= -> {nodes:[{id,group}], links:[{source,target}]}
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<byte[]>> getNetwork(@PathVariable String id,
+                                                   @RequestParam(defaultValue = "1") int depth,
+                                                   @RequestParam(defaultValue = "200") int limit) {
+        int paths = Math.max(1, Math.min(limit, maxLimit));
+        return stores.optional(StoreMetrics.NEO4J, "egoEdges", graph.egoEdges(id, depth, paths).collectList())
+                .defaultIfEmpty(List.of())
+                .flatMap(edges -> (edges.isEmpty()
+                        ? stores.optional(StoreMetrics.NEO4J, "existsById", graph.exists(id)).defaultIfEmpty(false)
+                        : Mono.just(true))
+                        .map(exists -> ResponseEntity.ok()
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .body(toJson(exists ? NetworkController.hopsFrom(id, edges) : Map.of(), edges))));
+    }
+
+    private byte[] toJson(Map<String, Integer> hops, List<UserGraphQueries.Edge> edges) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            NetworkController.writeGraph(json, hops, edges);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,82 @@
+package com.academia.bancos.reactive;
+
+import com.academia.bancos.metrics.StoreMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Equivalente reativo do StoreMetrics + prazo do StoreGuard: mesmo timer "store.calls" e mesmo
+ * app.store.timeout.<banco>-ms. Não há bulkhead: nenhuma thread fica presa esperando o banco,
+ * o limite de concorrência é o pool de conexões de cada driver.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveStoreCalls {
+
+    @Autowired private Environment env;
+    @Autowired private MeterRegistry registry;
+
+    private final Map<String, Duration> timeouts = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        for (String store : List.of(StoreMetrics.POSTGRES, StoreMetrics.MONGO, StoreMetrics.REDIS, StoreMetrics.NEO4J)) {
+            timeouts.put(store, Duration.ofMillis(env.getProperty("app.store.timeout." + store + "-ms", Long.class, 500L)));
+        }
+    }
+
+    // Escrita: só mede; o erro chega ao chamador (o prazo é o do driver, como no UserService)
+    public <T> Mono<T> required(String store, String operation, Mono<T> call) {
+        return timed(store, operation, call);
+    }
+
+    public <T> Flux<T> required(String store, String operation, Flux<T> call) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnComplete(() -> record(store, operation, "success", start))
+                    .doOnError(e -> record(store, operation, "error", start));
+        });
+    }
+
+    // Leitura dispensável: prazo do banco; estourou ou falhou -> vazio (o DTO sai sem os campos dele)
+    public <T> Mono<T> optional(String store, String operation, Mono<T> call) {
+        return timed(store, operation, call.timeout(timeouts.get(store)))
+                .onErrorResume(e -> {
+                    System.err.println("⏱️ " + store + "." + operation + " sem resposta: " + e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private <T> Mono<T> timed(String store, String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnSuccess(v -> record(store, operation, "success", start))
+                    .doOnError(e -> record(store, operation, "error", start));
+        });
+    }
+
+    private void record(String store, String operation, String outcome, long start) {
+        Timer.builder(StoreMetrics.METRIC)
+                .tag("store", store)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,100 @@
+package com.academia.bancos.reactive;
+
+import com.academia.bancos.model.dto.UserDTO;
+import com.academia.bancos.model.dto.UserPageDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+// Mesmas rotas e respostas do UserController, servidas pelo WebFlux
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin(origins = "http://localhost:4200")
+@Profile("reactive")
+public class ReactiveUserController {
+
+    @Autowired
+    private ReactiveUserService userService;
+
+    // --- CREATE ---
+    @PostMapping
+    public Mono<ResponseEntity<UserDTO>> create(@RequestBody UserDTO user) {
+        return userService.createUser(user)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    // --- READ ALL (array JSON escrito em streaming, sem juntar a lista em memória) ---
+    @GetMapping
+    public Flux<UserDTO> listAll(@RequestParam(required = false) String source) {
+        return userService.getAllUsers();
+    }
+
+    // --- READ PAGINADO (keyset: ?after=<userId>&limit=) ---
+    @GetMapping(params = "limit")
+    public Mono<ResponseEntity<UserPageDTO>> listPage(@RequestParam(required = false) String after,
+                                                      @RequestParam int limit) {
+        return userService.getUsersPage(after, limit)
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    // --- STREAM NDJSON ---
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public Flux<UserDTO> streamAll() {
+        return userService.getAllUsers();
+    }
+
+    // --- READ POR ID ---
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UserDTO>> getById(@PathVariable String id) {
+        return userService.getUserAggregated(id)
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    // --- UPDATE ---
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<UserDTO>> update(@PathVariable String id, @RequestBody UserDTO user) {
+        return userService.updateUser(id, user)
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    // --- DELETE ---
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable String id) {
+        return userService.deleteUser(id)
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    @PostMapping("/{followerId}/follow/{followedId}")
+    public Mono<ResponseEntity<Map<String, String>>> follow(@PathVariable String followerId, @PathVariable String followedId) {
+        return userService.createFollowRelationship(followerId, followedId)
+                .then(Mono.just(ResponseEntity.ok(Map.of("message", "Conexão criada com sucesso"))))
+                .onErrorResume(e -> Mono.just(ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())))));
+    }
+
+    // Follow em lote: corpo é um array JSON de userIds alvo
+    @PostMapping("/{id}/follow")
+    public Mono<ResponseEntity<Map<String, Object>>> followMany(@PathVariable String id, @RequestBody List<String> targetIds) {
+        return userService.createFollowRelationships(id, targetIds)
+                .map(created -> ResponseEntity.ok(Map.<String, Object>of("message", "Conexões criadas com sucesso", "created", created)))
+                .onErrorResume(e -> Mono.just(ResponseEntity.badRequest().body(Map.<String, Object>of("error", String.valueOf(e.getMessage())))));
+    }
+
+    @DeleteMapping("/{followerId}/follow/{followedId}")
+    public Mono<ResponseEntity<Map<String, String>>> unfollow(@PathVariable String followerId, @PathVariable String followedId) {
+        return userService.removeFollowRelationship(followerId, followedId)
+                .then(Mono.just(ResponseEntity.ok(Map.of("message", "Conexão removida com sucesso"))))
+                .onErrorResume(e -> Mono.just(ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())))));
+    }
+}
@@ -0,0 +1,291 @@
+package com.academia.bancos.reactive;
+
+import com.academia.bancos.metrics.StoreMetrics;
+import com.academia.bancos.model.document.UserProfileDoc;
+import com.academia.bancos.model.dto.UserDTO;
+import com.academia.bancos.model.dto.UserPageDTO;
+import com.academia.bancos.repository.UserGraphQueries;
+import com.academia.bancos.service.CredentialCache;
+import com.academia.bancos.service.RedisKeyspace;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Mesmas operações do UserService, compostas sem bloquear: cada banco devolve um Mono/Flux e a
+ * thread do event loop só volta quando há dado. Na leitura agregada os quatro bancos vão juntos
+ * (Mono.zip) e cada um tem o seu prazo; quem não responde fica fora do savedIn.
+ *
+ * Diferenças do modo bloqueante: sem near-cache, sem write-behind do contador de logins (o INCR
+ * reativo não segura thread) e sem outbox; escritas vão sempre direto aos quatro bancos.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUserService {
+
+    private static final String POSTGRES = StoreMetrics.POSTGRES;
+    private static final String MONGO = StoreMetrics.MONGO;
+    private static final String REDIS = StoreMetrics.REDIS;
+    private static final String NEO4J = StoreMetrics.NEO4J;
+
+    @Autowired private DatabaseClient postgres;
+    @Autowired private ReactiveMongoTemplate mongo;
+    @Autowired private ReactiveStringRedisTemplate redis;
+    @Autowired private ReactiveGraphQueries graph;
+    @Autowired private ReactiveStoreCalls stores;
+
+    @Value("${app.users.batch-size:500}") private int batchSize;
+    @Value("${app.users.max-page-size:1000}") private int maxPageSize;
+
+    // --- CREATE ---
+    // Postgres primeiro (email único); Mongo e Neo4j em paralelo; contador no Redis é dispensável
+    public Mono<UserDTO> createUser(UserDTO dto) {
+        DatabaseClient.GenericExecuteSpec insert = postgres.sql(
+                "INSERT INTO users (user_id, email, password_hash) VALUES (:id, :email, :hash)")
+                .bind("id", dto.getUserId());
+        insert = bind(insert, "email", dto.getEmail());
+        insert = bind(insert, "hash", dto.getPassword());
+        Mono<Long> pg = stores.required(POSTGRES, "insert", insert.fetch().rowsUpdated());
+
+        UserProfileDoc doc = new UserProfileDoc();
+        doc.setUserId(dto.getUserId());
+        doc.setAge(dto.getAge() != null ? dto.getAge() : 18);
+        doc.setCountry(dto.getCountry() != null ? dto.getCountry() : "Brazil");
+        doc.setGenres(dto.getGenres() != null ? dto.getGenres() : new ArrayList<>());
+
+        Mono<UserProfileDoc> mongoSave = stores.required(MONGO, "save", mongo.save(doc));
+        Mono<Void> node = stores.required(NEO4J, "save", graph.createNode(dto.getUserId()));
+        Mono<Long> counter = stores.optional(REDIS, "set", redis.opsForValue().set(loginCountKey(dto.getUserId()), "0")
+                .then(redis.opsForSet().add(RedisKeyspace.registryKey(RedisKeyspace.LOGIN_COUNT), dto.getUserId())));
+
+        return pg.then(Mono.when(mongoSave, node)).then(counter).thenReturn(dto);
+    }
+
+    // --- READ AGGREGATED ---
+    public Mono<UserDTO> getUserAggregated(String userId) {
+        // Linha do Postgres presente (o email em si pode ser nulo)
+        Mono<Optional<Optional<String>>> email = present(stores.optional(POSTGRES, "findById",
+                postgres.sql("SELECT email FROM users WHERE user_id = :id")
+                        .bind("id", userId)
+                        .map((row, meta) -> Optional.ofNullable(row.get("email", String.class)))
+                        .one()));
+        Mono<Optional<UserProfileDoc>> profile = present(stores.optional(MONGO, "findById",
+                mongo.findById(userId, UserProfileDoc.class)));
+        Mono<Optional<String>> count = present(stores.optional(REDIS, "getLoginCount", loginCount(userId)));
+        Mono<Optional<UserGraphQueries.Degree>> degree = present(stores.optional(NEO4J, "degree", graph.degree(userId)));
+
+        return Mono.zip(email, profile, count, degree).map(t -> {
+            UserDTO dto = new UserDTO();
+            dto.setUserId(userId);
+            List<String> savedIn = new ArrayList<>();
+
+            t.getT1().ifPresent(row -> {
+                dto.setEmail(row.orElse(null));
+                savedIn.add("Postgres");
+            });
+            t.getT2().ifPresent(p -> {
+                dto.setAge(p.getAge());
+                dto.setCountry(p.getCountry());
+                dto.setGenres(p.getGenres());
+                savedIn.add("MongoDB");
+            });
+            if (t.getT3().isPresent()) {
+                dto.setLoginCount(Integer.parseInt(t.getT3().get()));
+                savedIn.add("Redis");
+            } else {
+                dto.setLoginCount(0);
+            }
+            t.getT4().ifPresent(d -> {
+                dto.setFollowersCount(d.followers());
+                dto.setFollowingCount(d.following());
+                savedIn.add("Neo4j");
+            });
+
+            dto.setSavedIn(savedIn);
+            return dto;
+        });
+    }
+
+    // GET do contador; se faltar, cria com SETNX (não sobrescreve um INCR concorrente)
+    private Mono<String> loginCount(String userId) {
+        String key = loginCountKey(userId);
+        return redis.opsForValue().get(key)
+                .switchIfEmpty(Mono.defer(() -> redis.opsForValue().setIfAbsent(key, "0")
+                        .flatMap(created -> created
+                                ? redis.opsForSet().add(RedisKeyspace.registryKey(RedisKeyspace.LOGIN_COUNT), userId)
+                                : Mono.just(0L))
+                        .thenReturn("0")));
+    }
+
+    // --- READ ALL ---
+    // Cursor do Mongo com backpressure, montado em chunks de batch-size (um IN + um MGET por chunk).
+    // Serve também o NDJSON: cada DTO sai assim que o seu chunk fica pronto.
+    public Flux<UserDTO> getAllUsers() {
+        return stores.required(MONGO, "findAll", mongo.findAll(UserProfileDoc.class))
+                .buffer(batchSize)
+                .concatMap(this::assembleChunk);
+    }
+
+    // --- READ PAGE (keyset em userId) ---
+    public Mono<UserPageDTO> getUsersPage(String after, int limit) {
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        Query query = new Query(Criteria.where("userId").gt(after != null ? after : ""))
+                .with(Sort.by("userId"))
+                .limit(size);
+        return stores.required(MONGO, "findByUserIdGreaterThan", mongo.find(query, UserProfileDoc.class).collectList())
+                .flatMap(docs -> {
+                    if (docs.isEmpty()) return Mono.just(new UserPageDTO(List.of(), null));
+                    String last = docs.get(docs.size() - 1).getUserId();
+                    return assembleChunk(docs).collectList()
+                            .map(items -> new UserPageDTO(items, docs.size() < size ? null : last));
+                });
+    }
+
+    // Um IN no Postgres e um MGET no Redis, em paralelo; sem eles a lista sai sem email/contador
+    private Flux<UserDTO> assembleChunk(List<UserProfileDoc> chunk) {
+        String[] ids = chunk.stream().map(UserProfileDoc::getUserId).toArray(String[]::new);
+
+        Mono<Map<String, String>> emails = stores.optional(POSTGRES, "findAllById",
+                        postgres.sql("SELECT user_id, email FROM users WHERE user_id = ANY(:ids)")
+                                .bind("ids", ids)
+                                .map((row, meta) -> new String[]{row.get("user_id", String.class), row.get("email", String.class)})
+                                .all()
+                                .filter(r -> r[1] != null)
+                                .collectMap(r -> r[0], r -> r[1]))
+                .defaultIfEmpty(Map.of());
+
+        List<String> keys = new ArrayList<>(ids.length);
+        for (String id : ids) keys.add(loginCountKey(id));
+        Mono<List<String>> counts = stores.optional(REDIS, "multiGet", redis.opsForValue().multiGet(keys))
+                .defaultIfEmpty(List.of());
+
+        return Mono.zip(emails, counts).flatMapIterable(t -> {
+            List<UserDTO> dtos = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                UserProfileDoc doc = chunk.get(i);
+                UserDTO dto = new UserDTO();
+                dto.setUserId(doc.getUserId());
+                dto.setAge(doc.getAge());
+                dto.setCountry(doc.getCountry());
+                dto.setGenres(doc.getGenres());
+                dto.setEmail(t.getT1().get(doc.getUserId()));
+
+                String count = i < t.getT2().size() ? t.getT2().get(i) : null;
+                dto.setLoginCount(count != null ? Integer.parseInt(count) : 0);
+                dtos.add(dto);
+            }
+            return dtos;
+        });
+    }
+
+    // --- UPDATE ---
+    public Mono<UserDTO> updateUser(String id, UserDTO dto) {
+        String email = dto.getEmail() != null && !dto.getEmail().isEmpty() ? dto.getEmail() : null;
+        String password = dto.getPassword() != null && !dto.getPassword().isEmpty() ? dto.getPassword() : null;
+        Mono<Long> pg = Mono.empty();
+        if (email != null || password != null) {
+            DatabaseClient.GenericExecuteSpec update = postgres.sql(
+                    "UPDATE users SET email = COALESCE(:email, email), password_hash = COALESCE(:hash, password_hash) " +
+                    "WHERE user_id = :id")
+                    .bind("id", id);
+            update = bind(update, "email", email);
+            update = bind(update, "hash", password);
+            pg = stores.required(POSTGRES, "update", update.fetch().rowsUpdated());
+        }
+
+        Update changes = new Update();
+        if (dto.getAge() != null) changes.set("age", dto.getAge());
+        if (dto.getCountry() != null) changes.set("country", dto.getCountry());
+        if (dto.getGenres() != null) changes.set("genres", dto.getGenres());
+        Mono<?> profile = changes.getUpdateObject().isEmpty() ? Mono.empty()
+                : stores.required(MONGO, "update", mongo.updateFirst(byId(id), changes, UserProfileDoc.class));
+
+        return Mono.when(pg, profile).then(getUserAggregated(id));
+    }
+
+    // --- DELETE ---
+    public Mono<Void> deleteUser(String userId) {
+        Mono<Long> pg = stores.required(POSTGRES, "delete",
+                postgres.sql("DELETE FROM users WHERE user_id = :id").bind("id", userId).fetch().rowsUpdated());
+        Mono<?> profile = stores.required(MONGO, "delete", mongo.remove(byId(userId), UserProfileDoc.class));
+        Mono<Void> node = stores.required(NEO4J, "deleteWithCounters", graph.deleteWithCounters(userId));
+        // Chaves que sobrarem com o Redis fora ficam órfãs até o próximo purge do seed
+        Mono<Long> keys = stores.optional(REDIS, "unlink",
+                redis.unlink(loginCountKey(userId), "session:" + userId, "last_login:" + userId)
+                        .then(redis.opsForSet().remove(RedisKeyspace.registryKey(RedisKeyspace.LOGIN_COUNT), userId)));
+
+        return pg.then(Mono.when(profile, node, keys));
+    }
+
+    // --- RELATIONSHIPS ---
+    public Mono<Void> createFollowRelationship(String followerId, String followedId) {
+        return stores.required(NEO4J, "createRelationship", graph.createRelationship(followerId, followedId));
+    }
+
+    public Mono<Long> createFollowRelationships(String followerId, List<String> followedIds) {
+        List<String> targets = followedIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (targets.isEmpty()) return Mono.just(0L);
+        return stores.required(NEO4J, "createRelationships", graph.createRelationships(followerId, targets));
+    }
+
+    public Mono<Void> removeFollowRelationship(String followerId, String followedId) {
+        return stores.required(NEO4J, "deleteRelationship", graph.deleteRelationship(followerId, followedId));
+    }
+
+    // --- LOGIN ---
+    public Mono<CredentialCache.Credentials> findCredentials(String email) {
+        return stores.required(POSTGRES, "findByEmail",
+                postgres.sql("SELECT user_id, email, password_hash FROM users WHERE email = :email")
+                        .bind("email", email)
+                        .map((row, meta) -> new CredentialCache.Credentials(
+                                row.get("user_id", String.class), row.get("email", String.class), row.get("password_hash", String.class)))
+                        .one());
+    }
+
+    // INCR + sessão + último login; sem Redis o login segue (degradado)
+    public Mono<Void> recordLogin(String userId) {
+        Map<String, String> session = new HashMap<>();
+        session.put("session:" + userId, "ACTIVE");
+        session.put("last_login:" + userId, LocalDateTime.now().toString());
+        return stores.optional(REDIS, "recordLogin", redis.opsForValue().increment(loginCountKey(userId))
+                        .then(redis.opsForValue().multiSet(session)))
+                .then();
+    }
+
+    // ================= INTERNOS =================
+
+    private static <T> Mono<Optional<T>> present(Mono<T> value) {
+        return value.map(Optional::of).defaultIfEmpty(Optional.empty());
+    }
+
+    private static Query byId(String userId) {
+        return new Query(Criteria.where("userId").is(userId));
+    }
+
+    private static String loginCountKey(String userId) {
+        return RedisKeyspace.LOGIN_COUNT + ":" + userId;
+    }
+
+    // O R2DBC não aceita null em bind(): nulo vai por bindNull com o tipo da coluna
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name, String value) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, String.class);
+    }
+}
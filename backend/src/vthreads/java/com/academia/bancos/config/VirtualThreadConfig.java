@@ -0,0 +1,25 @@
+package com.academia.bancos.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * storeExecutor em threads virtuais (JDK 21 + spring.threads.virtual.enabled).
+ * Uma thread por chamada, sem fila nem recusa por fila cheia: esperar o banco não custa thread de
+ * plataforma. Quem limita a concorrência por banco é o bulkhead do StoreGuard, que no perfil
+ * vthreads acompanha o tamanho do pool de conexões de cada driver.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean(name = "storeExecutor", destroyMethod = "shutdown")
+    public ExecutorService storeExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("store-io-", 1).factory());
+    }
+}
@@ -0,0 +1,26 @@
+package com.academia.bancos.controller;
+
+import com.academia.bancos.metrics.PinningMonitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stores")
+@CrossOrigin(origins = "http://localhost:4200")
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class PinningController {
+
+    @Autowired
+    private PinningMonitor pinningMonitor;
+
+    // Pontos onde threads virtuais ficaram presas à carrier: ocorrências, tempo total e pior caso
+    @GetMapping("/pinning")
+    public ResponseEntity<Map<String, Object>> pinning() {
+        return ResponseEntity.ok(pinningMonitor.report());
+    }
+}
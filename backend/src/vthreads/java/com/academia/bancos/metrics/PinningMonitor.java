@@ -0,0 +1,120 @@
+package com.academia.bancos.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detecta threads virtuais presas à carrier (evento JFR jdk.VirtualThreadPinned): bloqueio dentro
+ * de synchronized ou de código nativo. Cada ocorrência acima de app.vthreads.pinning-threshold-ms
+ * é agrupada pelo primeiro frame fora do JDK (o "ponto quente", seja nosso ou do driver), vira
+ * o timer vthreads.pinned{site} e aparece em GET /api/stores/pinning. A primeira vez de cada ponto
+ * loga a pilha inteira.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class PinningMonitor {
+
+    // Teto de tags "site" distintas; o resto conta como "other"
+    private static final int MAX_SITES = 50;
+
+    @Autowired private MeterRegistry registry;
+
+    @Value("${app.vthreads.pinning-threshold-ms:20}") private long thresholdMs;
+
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    private static final class Site {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        volatile long maxNanos;
+        Timer timer;
+    }
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.startAsync();
+        System.out.println("🧵 Monitor de pinning ativo (limiar " + thresholdMs + " ms)");
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) stream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        String where = hotspot(event);
+        String key = sites.size() < MAX_SITES || sites.containsKey(where) ? where : "other";
+
+        Site site = sites.computeIfAbsent(key, k -> {
+            Site s = new Site();
+            s.timer = Timer.builder("vthreads.pinned").tag("site", k).register(registry);
+            System.err.println("📌 Thread virtual presa em " + k + " por " + nanos / 1_000_000 + " ms:\n" + stack(event));
+            return s;
+        });
+        site.count.increment();
+        site.totalNanos.add(nanos);
+        if (nanos > site.maxNanos) site.maxNanos = nanos;
+        site.timer.record(Duration.ofNanos(nanos));
+    }
+
+    // Ordenado pelo tempo total preso
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        sites.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Site> e) -> e.getValue().totalNanos.sum()).reversed())
+                .forEach(e -> {
+                    Map<String, Object> s = new LinkedHashMap<>();
+                    s.put("count", e.getValue().count.sum());
+                    s.put("totalMs", e.getValue().totalNanos.sum() / 1_000_000);
+                    s.put("maxMs", e.getValue().maxNanos / 1_000_000);
+                    report.put(e.getKey(), s);
+                });
+        return report;
+    }
+
+    // ================= INTERNOS =================
+
+    private static String hotspot(RecordedEvent event) {
+        if (event.getStackTrace() == null) return "unknown";
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.")) continue;
+            return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+        }
+        return frames.isEmpty() ? "unknown" : frames.get(0).getMethod().getType().getName();
+    }
+
+    private static String stack(RecordedEvent event) {
+        if (event.getStackTrace() == null) return "    (sem pilha)";
+        StringBuilder sb = new StringBuilder();
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            sb.append("    at ").append(frame.getMethod().getType().getName()).append('.')
+                    .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber()).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -22,6 +22,8 @@ export interface UserDTO {
 
   // Neo4j
   followingIds?: string[];
+  followersCount?: number;
+  followingCount?: number;
 
   // Metadados
   savedIn?: string[];